@@ -0,0 +1,20 @@
+package org.watermedia.videolan4j;
+
+/**
+ * What {@link ByteBufferFactory} does when an allocation does not fit in the buffer budget
+ * @see ByteBufferFactory#setBudget(long, BudgetPolicy, long)
+ */
+public enum BudgetPolicy {
+    /**
+     * Waits until enough memory gets deallocated
+     */
+    BLOCK,
+    /**
+     * Waits until enough memory gets deallocated or the timeout is reached
+     */
+    TIMED,
+    /**
+     * Rejects the allocation right away
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,159 @@
+package org.watermedia.videolan4j;
+
+import com.sun.jna.Pointer;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.binding.internal.libvlc_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_event_e;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scoped allocator, hands out slices of big slabs using a bump pointer and releases all of them at once on {@link #close()}.
+ * <p>Arenas can be bound to a media, being closed when LibVLC frees it, or to a media player, being closed by
+ * {@link #release(libvlc_media_player_t)} right before releasing the player</p>
+ * <p>Slices MUST NOT be deallocated individually</p>
+ */
+public class BufferArena implements AutoCloseable {
+    private static final Marker IT = MarkerManager.getMarker("BufferArena");
+    private static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+    private static final ConcurrentHashMap<Long, BufferArena> ARENAS = new ConcurrentHashMap<>();
+    private static final libvlc_callback_t MEDIA_FREED = (event, userData) -> {
+        VideoLan4J.checkClassLoader(BufferArena.class.getClassLoader());
+        BufferArena arena = ARENAS.remove(Pointer.nativeValue(userData));
+        if (arena != null) arena.close();
+    };
+
+    private final int slabSize;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private ByteBuffer slab;
+    private long slabAddress;
+    private int offset;
+    private long allocated;
+    private boolean closed;
+
+    /**
+     * Creates an arena using 4 MiB slabs
+     */
+    public BufferArena() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates an arena
+     * @param slabSize size of each slab, allocations bigger than half of it get their own buffer
+     */
+    public BufferArena(int slabSize) {
+        if (slabSize <= 0) throw new IllegalArgumentException("Slab size must be positive, got " + slabSize);
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * Gets the arena bound to the media, creating it when missing.
+     * The arena is closed when the media is freed by LibVLC
+     *
+     * @param media media instance
+     * @return media arena
+     */
+    public static BufferArena of(libvlc_media_t media) {
+        long key = Pointer.nativeValue(media.getPointer());
+        return ARENAS.computeIfAbsent(key, k -> {
+            int result = LibVlc.libvlc_event_attach(LibVlc.libvlc_media_event_manager(media), libvlc_event_e.libvlc_MediaFreed.intValue(), MEDIA_FREED, media.getPointer());
+            if (result != 0) throw new IllegalStateException("Failed to attach the media freed event");
+            return new BufferArena();
+        });
+    }
+
+    /**
+     * Gets the arena bound to the media player, creating it when missing.
+     * Players have no freed event, call {@link #release(libvlc_media_player_t)} before releasing the player
+     *
+     * @param player media player instance
+     * @return media player arena
+     */
+    public static BufferArena of(libvlc_media_player_t player) {
+        return ARENAS.computeIfAbsent(Pointer.nativeValue(player.getPointer()), k -> new BufferArena());
+    }
+
+    /**
+     * Closes the arena bound to the media player, if any
+     * @param player media player instance
+     */
+    public static void release(libvlc_media_player_t player) {
+        BufferArena arena = ARENAS.remove(Pointer.nativeValue(player.getPointer()));
+        if (arena != null) arena.close();
+    }
+
+    /**
+     * Allocates a slice with the default LibVLC alignment
+     * @see #alloc(int, int)
+     */
+    public ByteBuffer alloc(int size) {
+        return alloc(size, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+    }
+
+    /**
+     * Allocates a slice from the current slab, opening a new slab when it does not fit
+     *
+     * @param size required size for the buffer
+     * @param alignment power of two alignment
+     * @return aligned slice, valid until the arena gets closed
+     * @throws IllegalStateException if the arena is already closed
+     */
+    public synchronized ByteBuffer alloc(int size, int alignment) {
+        if (closed) throw new IllegalStateException("Arena is already closed");
+        if (size < 0) throw new IllegalArgumentException("Buffer size cannot be negative: " + size);
+        ByteBufferFactory.checkAlignment(alignment);
+
+        if (size > slabSize / 2 || alignment > ByteBufferFactory.PAGE_SIZE) {
+            ByteBuffer buffer = ByteBufferFactory.alloc(size, alignment);
+            slabs.add(buffer);
+            allocated += size;
+            return buffer;
+        }
+
+        long start = align(slabAddress + offset, alignment) - slabAddress;
+        if (slab == null || start + size > slab.capacity()) {
+            slab = ByteBufferFactory.alloc(slabSize, ByteBufferFactory.PAGE_SIZE);
+            slabAddress = ByteBufferFactory.address(slab);
+            slabs.add(slab);
+            start = 0;
+        }
+        offset = (int) start + size;
+        allocated += size;
+
+        ByteBuffer result = (ByteBuffer) slab.duplicate().position((int) start).limit(offset);
+        return result.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return bytes handed out by the arena, padding excluded
+     */
+    public synchronized long allocated() {
+        return allocated;
+    }
+
+    /**
+     * Releases all the slabs, any slice handed out MUST NOT be used after that. Closing twice does nothing
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        ByteBufferFactory.dealloc(slabs.toArray(new ByteBuffer[0]));
+        VideoLan4J.LOGGER.debug(IT, "Released {} slabs holding {} bytes", slabs.size(), allocated);
+        slabs.clear();
+        slab = null;
+    }
+
+    private static long align(long value, int alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+}
@@ -0,0 +1,122 @@
+package org.watermedia.videolan4j;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Global budget of the memory allocated by {@link ByteBufferFactory}, reservations are lock-free
+ * until the budget is exhausted and the policy asks to wait
+ */
+final class BufferBudget {
+    private static final Marker IT = MarkerManager.getMarker("BufferBudget");
+    private static final AtomicLong USED = new AtomicLong();
+    private static final AtomicInteger WAITERS = new AtomicInteger();
+    private static final LongAdder REJECTIONS = new LongAdder();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Condition RELEASED = LOCK.newCondition();
+
+    private static volatile long MAX_BYTES = Long.MAX_VALUE;
+    private static volatile BudgetPolicy POLICY = BudgetPolicy.FAIL_FAST;
+    private static volatile long TIMEOUT_NANOS;
+
+    private BufferBudget() {}
+
+    static void set(long maxBytes, BudgetPolicy policy, long timeoutMillis) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("Budget must be positive, got " + maxBytes);
+        if (timeoutMillis < 0) throw new IllegalArgumentException("Timeout cannot be negative, got " + timeoutMillis);
+        MAX_BYTES = maxBytes;
+        POLICY = policy;
+        TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        signal();
+    }
+
+    /**
+     * Reserves the bytes following the current policy
+     * @param bytes bytes to reserve
+     * @return true if reserved, false if rejected
+     */
+    static boolean reserve(long bytes) {
+        if (tryReserve(bytes)) return true;
+
+        BudgetPolicy policy = POLICY;
+        if (policy != BudgetPolicy.FAIL_FAST && bytes <= MAX_BYTES && await(bytes, policy)) return true;
+
+        REJECTIONS.increment();
+        VideoLan4J.LOGGER.warn(IT, "Rejected allocation of {} bytes, {} of {} bytes in use", bytes, USED.get(), MAX_BYTES);
+        return false;
+    }
+
+    /**
+     * Adds bytes without checking the budget, used when an allocator hands out more than requested
+     * @param bytes bytes to add, negative to subtract
+     */
+    static void adjust(long bytes) {
+        USED.addAndGet(bytes);
+        if (bytes < 0) signal();
+    }
+
+    static void release(long bytes) {
+        USED.addAndGet(-bytes);
+        signal();
+    }
+
+    static long max() {
+        return MAX_BYTES;
+    }
+
+    static long rejections() {
+        return REJECTIONS.sum();
+    }
+
+    private static boolean tryReserve(long bytes) {
+        long max = MAX_BYTES;
+        long used;
+        do {
+            used = USED.get();
+            if (used + bytes > max) return false;
+        } while (!USED.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    private static boolean await(long bytes, BudgetPolicy policy) {
+        long remaining = TIMEOUT_NANOS;
+        LOCK.lock();
+        WAITERS.incrementAndGet();
+        try {
+            while (!tryReserve(bytes)) {
+                if (policy == BudgetPolicy.BLOCK) {
+                    RELEASED.await();
+                } else if (remaining <= 0) {
+                    return false;
+                } else {
+                    remaining = RELEASED.awaitNanos(remaining);
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            WAITERS.decrementAndGet();
+            LOCK.unlock();
+        }
+    }
+
+    private static void signal() {
+        // RELEASES ARE COUNTED BEFORE CHECKING WAITERS, SO A WAITER REGISTERED LATER ALWAYS SEES THEM
+        if (WAITERS.get() == 0) return;
+        LOCK.lock();
+        try {
+            RELEASED.signalAll();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.watermedia.videolan4j;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Pooled buffer allocator, keeps size-classed free lists of page aligned buffers and reuses them across all players.
+ * <p>Enable it using {@link VideoLan4J#setAlignedBufferAllocator(BiFunction)} with {@link #alloc(int, int)} and
+ * {@link VideoLan4J#setBufferDeallocator(Consumer)} with {@link #dealloc(ByteBuffer)}, both MUST be set together
+ * or the default deallocator will release memory still owned by the pool</p>
+ * <p>Size classes start on 4 KiB and each power of two is split in 4 steps, wasting at most 25% of the buffer.
+ * Reused buffers are NOT zeroed</p>
+ */
+public class BufferPool {
+    private static final Marker IT = MarkerManager.getMarker("BufferPool");
+    private static final int MIN_CLASS_SHIFT = 12;
+    private static final int MAX_CLASS_SHIFT = 30;
+    private static final int CLASS_STEPS = 4;
+    static final int CLASSES = (MAX_CLASS_SHIFT - MIN_CLASS_SHIFT) * CLASS_STEPS + 1;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ConcurrentLinkedDeque<Slot>[] FREE = new ConcurrentLinkedDeque[CLASSES];
+    private static final ConcurrentHashMap<Long, Slot> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicLong POOLED_BYTES = new AtomicLong();
+    private static volatile long MAX_POOLED_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Takes a buffer from the pool, allocating a new one when the size class has no free buffers.
+     * Sizes above the biggest size class are allocated directly and never pooled
+     *
+     * @param size required size for the buffer
+     * @return aligned byte buffer with the exact requested capacity
+     */
+    public static ByteBuffer alloc(int size) {
+        return alloc(size, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+    }
+
+    /**
+     * Takes a buffer from the pool, allocating a new one when the size class has no free buffers.
+     * Sizes above the biggest size class and alignments above the page size are allocated directly and never pooled
+     *
+     * @param size required size for the buffer
+     * @param alignment power of two alignment
+     * @return aligned byte buffer with the exact requested capacity
+     */
+    public static ByteBuffer alloc(int size, int alignment) {
+        if (size < 0) throw new IllegalArgumentException("Buffer size cannot be negative: " + size);
+        if (size > classSize(CLASSES - 1) || alignment > ByteBufferFactory.PAGE_SIZE) return ByteBufferFactory.alloc1(size, alignment);
+
+        int index = sizeClass(size);
+        Slot slot = FREE[index].pollFirst();
+        if (slot != null) {
+            POOLED_BYTES.addAndGet(-slot.buffer.capacity());
+        } else {
+            slot = new Slot(ByteBufferFactory.alloc1(classSize(index), ByteBufferFactory.PAGE_SIZE), index);
+            SLOTS.put(ByteBufferFactory.address(slot.buffer), slot);
+        }
+        slot.leased.set(true);
+
+        ByteBuffer result = (ByteBuffer) slot.buffer.duplicate().limit(size);
+        return result.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the buffer to the pool, when the pool is already full the buffer gets released.
+     * Buffers not created by the pool are delegated to the default deallocator
+     *
+     * @param buffer buffer to release
+     */
+    public static void dealloc(ByteBuffer buffer) {
+        long address = ByteBufferFactory.address(buffer);
+        Slot slot = SLOTS.get(address);
+        if (slot == null) {
+            ByteBufferFactory.dealloc1(buffer);
+            return;
+        }
+
+        if (!slot.leased.compareAndSet(true, false)) {
+            VideoLan4J.LOGGER.warn(IT, "Buffer at 0x{} was already returned to the pool, ignoring", Long.toHexString(address));
+            return;
+        }
+
+        int capacity = slot.buffer.capacity();
+        if (POOLED_BYTES.addAndGet(capacity) > MAX_POOLED_BYTES) {
+            POOLED_BYTES.addAndGet(-capacity);
+            SLOTS.remove(address);
+            ByteBufferFactory.dealloc1(slot.buffer);
+            return;
+        }
+        FREE[slot.index].offerFirst(slot);
+    }
+
+    /**
+     * Releases all the buffers waiting on the free lists
+     */
+    public static void trim() {
+        for (ConcurrentLinkedDeque<Slot> list: FREE) {
+            Slot slot;
+            while ((slot = list.pollFirst()) != null) {
+                POOLED_BYTES.addAndGet(-slot.buffer.capacity());
+                SLOTS.remove(ByteBufferFactory.address(slot.buffer));
+                ByteBufferFactory.dealloc1(slot.buffer);
+            }
+        }
+    }
+
+    /**
+     * Sets how many bytes the free lists can hold, any buffer returned beyond that limit is released.
+     * <p>Default is 256 MiB</p>
+     *
+     * @param bytes max pooled bytes
+     */
+    public static void setMaxPooledBytes(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("Max pooled bytes cannot be negative: " + bytes);
+        MAX_POOLED_BYTES = bytes;
+    }
+
+    /**
+     * @return amount of bytes waiting on the free lists
+     */
+    public static long pooledBytes() {
+        return POOLED_BYTES.get();
+    }
+
+    /**
+     * Computes the size class index for the given size
+     * @param size buffer size
+     * @return size class index
+     */
+    static int sizeClass(int size) {
+        if (size <= 1 << MIN_CLASS_SHIFT) return 0;
+        int shift = 31 - Integer.numberOfLeadingZeros(size - 1);
+        int step = 1 << (shift - 2);
+        int sub = ((size - (1 << shift)) + step - 1) >> (shift - 2);
+        return (shift - MIN_CLASS_SHIFT) * CLASS_STEPS + sub;
+    }
+
+    /**
+     * Computes the buffer size of the given size class
+     * @param index size class index
+     * @return size class capacity
+     */
+    static int classSize(int index) {
+        if (index == 0) return 1 << MIN_CLASS_SHIFT;
+        int shift = MIN_CLASS_SHIFT + (index - 1) / CLASS_STEPS;
+        int sub = (index - 1) % CLASS_STEPS + 1;
+        return (1 << shift) + (sub << (shift - 2));
+    }
+
+    private static final class Slot {
+        private final ByteBuffer buffer;
+        private final int index;
+        private final AtomicBoolean leased = new AtomicBoolean();
+
+        private Slot(ByteBuffer buffer, int index) {
+            this.buffer = buffer;
+            this.index = index;
+        }
+    }
+
+    static {
+        for (int i = 0; i < CLASSES; i++) {
+            FREE[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.watermedia.videolan4j;
+
+/**
+ * Snapshot of the off-heap memory handled by {@link ByteBufferFactory}
+ * <p>Allocations and frees are grouped by the {@link BufferPool} size classes</p>
+ */
+public final class BufferStats {
+    private final long liveBytes;
+    private final long peakBytes;
+    private final long leaks;
+    private final long leakedBytes;
+    private final long budgetBytes;
+    private final long rejections;
+    private final int[] classSizes;
+    private final long[] allocations;
+    private final long[] frees;
+
+    BufferStats(long liveBytes, long peakBytes, long leaks, long leakedBytes, long budgetBytes, long rejections, int[] classSizes, long[] allocations, long[] frees) {
+        this.liveBytes = liveBytes;
+        this.peakBytes = peakBytes;
+        this.leaks = leaks;
+        this.leakedBytes = leakedBytes;
+        this.budgetBytes = budgetBytes;
+        this.rejections = rejections;
+        this.classSizes = classSizes;
+        this.allocations = allocations;
+        this.frees = frees;
+    }
+
+    /**
+     * @return bytes allocated and not yet deallocated
+     */
+    public long liveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * @return highest amount of live bytes seen
+     */
+    public long peakBytes() {
+        return peakBytes;
+    }
+
+    /**
+     * @return buffers collected by the GC without being deallocated, only counted while leak tracking is enabled
+     */
+    public long leaks() {
+        return leaks;
+    }
+
+    /**
+     * @return bytes of the leaked buffers, the GC freed them so they are no longer included in {@link #liveBytes()}
+     */
+    public long leakedBytes() {
+        return leakedBytes;
+    }
+
+    /**
+     * @return max bytes allowed by the buffer budget, {@link Long#MAX_VALUE} when unlimited
+     */
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * @return allocations rejected by the buffer budget
+     */
+    public long rejections() {
+        return rejections;
+    }
+
+    /**
+     * @return amount of size classes
+     */
+    public int sizeClasses() {
+        return classSizes.length;
+    }
+
+    /**
+     * @param sizeClass size class index
+     * @return biggest buffer size counted on the size class, the last one also counts everything bigger
+     */
+    public int classSize(int sizeClass) {
+        return classSizes[sizeClass];
+    }
+
+    /**
+     * @param sizeClass size class index
+     * @return allocations on the size class
+     */
+    public long allocations(int sizeClass) {
+        return allocations[sizeClass];
+    }
+
+    /**
+     * @param sizeClass size class index
+     * @return frees on the size class
+     */
+    public long frees(int sizeClass) {
+        return frees[sizeClass];
+    }
+
+    /**
+     * @return total allocations
+     */
+    public long allocations() {
+        long total = 0;
+        for (long count: allocations) total += count;
+        return total;
+    }
+
+    /**
+     * @return total frees
+     */
+    public long frees() {
+        long total = 0;
+        for (long count: frees) total += count;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferStats{live=" + liveBytes + ", peak=" + peakBytes + ", allocations=" + allocations() + ", frees=" + frees() + ", leaks=" + leaks + ", rejections=" + rejections + "}";
+    }
+}
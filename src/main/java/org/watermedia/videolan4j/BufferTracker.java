@@ -0,0 +1,251 @@
+package org.watermedia.videolan4j;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Off-heap memory accounting of {@link ByteBufferFactory}, counters are striped to keep it cheap.
+ * <p>Live buffers are always known by address, so freeing one twice or freeing a foreign one is not counted.
+ * They are kept on preallocated open addressing tables striped by address, allocating and freeing does not box</p>
+ * <p>Leak tracking records where each buffer was allocated and reports the ones collected by the GC
+ * without being deallocated, it holds up to {@link #MAX_TRACKED} buffers at the same time.
+ * The GC already freed their memory, so their bytes are taken out of the live bytes and the budget</p>
+ */
+final class BufferTracker {
+    private static final Marker IT = MarkerManager.getMarker("BufferTracker");
+    private static final int MAX_TRACKED = 1 << 16;
+    private static final int STRIPES = 16;
+    private static final int STRIPE_CAPACITY = 1024;
+
+    private static final LongAdder[] ALLOCATIONS = new LongAdder[BufferPool.CLASSES];
+    private static final LongAdder[] FREES = new LongAdder[BufferPool.CLASSES];
+    private static final AtomicLong LIVE_BYTES = new AtomicLong();
+    private static final AtomicLong PEAK_BYTES = new AtomicLong();
+    private static final LongAdder LEAKS = new LongAdder();
+    private static final LongAdder LEAKED_BYTES = new LongAdder();
+
+    private static final Stripe[] LIVE = new Stripe[STRIPES];
+    private static final ConcurrentHashMap<Long, Leak> TRACKED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ByteBuffer> QUEUE = new ReferenceQueue<>();
+    static volatile boolean TRACKING = Boolean.parseBoolean(System.getProperty("videolan4j.trackBufferLeaks"));
+
+    private BufferTracker() {}
+
+    static void allocated(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        long address = ByteBufferFactory.address(buffer);
+        Stripe stripe = stripe(address);
+        int previous;
+        Leak leaked = null;
+        // TRACKED ENTRIES ARE CHANGED WITH THE LIVE ONES, A LEAK NEVER REMOVES A NEWER BUFFER ON THE SAME ADDRESS
+        synchronized (stripe) {
+            previous = stripe.put(address, size);
+            if (TRACKING) {
+                leaked = TRACKED.remove(address);
+                if (TRACKED.size() < MAX_TRACKED) TRACKED.put(address, new Leak(buffer, address, size));
+            }
+        }
+        ALLOCATIONS[sizeClass(size)].increment();
+        long live = LIVE_BYTES.addAndGet(size);
+        if (live > PEAK_BYTES.get()) PEAK_BYTES.accumulateAndGet(live, Math::max);
+
+        // THE PREVIOUS BUFFER ON THIS ADDRESS WAS FREED WITHOUT DEALLOC, LIKE BY THE GC
+        if (previous != -1) {
+            reclaim(previous, leaked);
+        } else if (leaked != null) {
+            leaked.clear();
+        }
+        if (TRACKING) pollLeaks();
+    }
+
+    /**
+     * Counts a free, only once per allocation
+     * @return false if the buffer is not live, like when it was already deallocated
+     */
+    static boolean deallocated(ByteBuffer buffer) {
+        long address = ByteBufferFactory.address(buffer);
+        Stripe stripe = stripe(address);
+        int size;
+        Leak leak = null;
+        synchronized (stripe) {
+            size = stripe.remove(address);
+            if (size != -1 && TRACKING) leak = TRACKED.remove(address);
+        }
+        if (size == -1) {
+            VideoLan4J.LOGGER.warn(IT, "Buffer of {} bytes at 0x{} is not live, it was already deallocated or not allocated here", buffer.capacity(), Long.toHexString(address));
+            return false;
+        }
+        FREES[sizeClass(size)].increment();
+        LIVE_BYTES.addAndGet(-size);
+
+        if (leak != null) leak.clear();
+        if (TRACKING) pollLeaks();
+        return true;
+    }
+
+    static void setTracking(boolean tracking) {
+        TRACKING = tracking;
+        if (!tracking) {
+            TRACKED.values().forEach(Leak::clear);
+            TRACKED.clear();
+        }
+    }
+
+    static BufferStats snapshot() {
+        if (TRACKING) pollLeaks();
+
+        int[] sizes = new int[BufferPool.CLASSES];
+        long[] allocations = new long[BufferPool.CLASSES];
+        long[] frees = new long[BufferPool.CLASSES];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = BufferPool.classSize(i);
+            allocations[i] = ALLOCATIONS[i].sum();
+            frees[i] = FREES[i].sum();
+        }
+        return new BufferStats(LIVE_BYTES.get(), PEAK_BYTES.get(), LEAKS.sum(), LEAKED_BYTES.sum(), BufferBudget.max(), BufferBudget.rejections(), sizes, allocations, frees);
+    }
+
+    private static void pollLeaks() {
+        Leak leak;
+        while ((leak = (Leak) QUEUE.poll()) != null) {
+            Stripe stripe = stripe(leak.address);
+            int size = -1;
+            synchronized (stripe) {
+                if (TRACKED.remove(leak.address, leak)) size = stripe.remove(leak.address);
+            }
+            if (size != -1) reclaim(size, leak);
+        }
+    }
+
+    /**
+     * Takes a buffer freed without dealloc out of the live bytes and the budget
+     * @param size bytes of the buffer
+     * @param leak tracked allocation of the buffer, null if it was not tracked
+     */
+    private static void reclaim(int size, Leak leak) {
+        LIVE_BYTES.addAndGet(-size);
+        BufferBudget.release(size);
+        if (leak == null) {
+            VideoLan4J.LOGGER.debug(IT, "Buffer of {} bytes was freed without being deallocated", size);
+            return;
+        }
+        leak.clear();
+        LEAKS.increment();
+        LEAKED_BYTES.add(size);
+        VideoLan4J.LOGGER.warn(IT, "Buffer of {} bytes at 0x{} was collected without being deallocated", size, Long.toHexString(leak.address), leak.trace);
+    }
+
+    private static Stripe stripe(long address) {
+        return LIVE[(int) (mix(address) >>> 60) & (STRIPES - 1)];
+    }
+
+    private static long mix(long address) {
+        return address * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int sizeClass(int size) {
+        return Math.min(BufferPool.sizeClass(size), BufferPool.CLASSES - 1);
+    }
+
+    private static final class Leak extends PhantomReference<ByteBuffer> {
+        private final long address;
+        private final int size;
+        private final Throwable trace;
+
+        private Leak(ByteBuffer buffer, long address, int size) {
+            super(buffer, QUEUE);
+            this.address = address;
+            this.size = size;
+            this.trace = new Throwable("Allocation site");
+        }
+    }
+
+    /**
+     * Linear probing table of live buffers, address to size. Guarded by its own monitor
+     * <p>Removals shift the following entries back, so there are no tombstones. It only allocates when growing</p>
+     */
+    private static final class Stripe {
+        private long[] addresses = new long[STRIPE_CAPACITY]; // 0 IS EMPTY, DIRECT BUFFERS ARE NEVER THERE
+        private int[] sizes = new int[STRIPE_CAPACITY];
+        private int count;
+
+        /**
+         * @return size of the buffer replaced on the same address, -1 if there was none
+         */
+        int put(long address, int size) {
+            if (count >= addresses.length - (addresses.length >> 2)) this.grow();
+            int mask = addresses.length - 1;
+            int i = index(address, mask);
+            while (addresses[i] != 0) {
+                if (addresses[i] == address) {
+                    int previous = sizes[i];
+                    sizes[i] = size;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            addresses[i] = address;
+            sizes[i] = size;
+            count++;
+            return -1;
+        }
+
+        /**
+         * @return size of the removed buffer, -1 if it was not there
+         */
+        int remove(long address) {
+            int mask = addresses.length - 1;
+            int i = index(address, mask);
+            while (addresses[i] != address) {
+                if (addresses[i] == 0) return -1;
+                i = (i + 1) & mask;
+            }
+            int size = sizes[i];
+
+            // MOVE BACK EVERY ENTRY WHOSE HOME IS NOT BETWEEN THE HOLE AND ITSELF
+            int hole = i;
+            for (int j = (i + 1) & mask; addresses[j] != 0; j = (j + 1) & mask) {
+                if (((j - index(addresses[j], mask)) & mask) >= ((j - hole) & mask)) {
+                    addresses[hole] = addresses[j];
+                    sizes[hole] = sizes[j];
+                    hole = j;
+                }
+            }
+            addresses[hole] = 0;
+            count--;
+            return size;
+        }
+
+        private void grow() {
+            long[] addresses = this.addresses;
+            int[] sizes = this.sizes;
+            this.addresses = new long[addresses.length << 1];
+            this.sizes = new int[sizes.length << 1];
+            this.count = 0;
+            for (int i = 0; i < addresses.length; i++) {
+                if (addresses[i] != 0) this.put(addresses[i], sizes[i]);
+            }
+        }
+
+        private static int index(long address, int mask) {
+            return (int) (mix(address) >>> 32) & mask;
+        }
+    }
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LIVE[i] = new Stripe();
+        }
+        for (int i = 0; i < BufferPool.CLASSES; i++) {
+            ALLOCATIONS[i] = new LongAdder();
+            FREES[i] = new LongAdder();
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package org.watermedia.videolan4j;
 
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.binding.lib.Kernel32;
+import org.watermedia.videolan4j.binding.lib.LibC;
+import org.watermedia.videolan4j.binding.lib.types.size_t;
 import sun.misc.Unsafe;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -13,9 +29,19 @@ import java.util.function.Function;
  * Factory for LibVLC general usages
  */
 public class ByteBufferFactory {
+    private static final Marker IT = MarkerManager.getMarker("ByteBufferFactory");
     private static final Unsafe UNSAFE;
-    private static final long ADDRESS_FIELD_OFFSET;
-    static Function<Integer, ByteBuffer> BUFFER_ALLOCATOR = ByteBufferFactory::alloc1;
+    private static final MethodHandle ADDRESS;
+    private static final Class<?> DIRECT_BUFFER_CLASS;
+    private static final long ATTACHMENT_FIELD_OFFSET;
+    private static final Consumer<ByteBuffer> CLEANER;
+    static final int PAGE_SIZE = 4096;
+    private static final int HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+    private static final ConcurrentHashMap<Long, Integer> PINNED = new ConcurrentHashMap<>();
+    private static volatile boolean PINNING = true;      // FALSE ONCE THE PROCESS IS NOT ALLOWED TO LOCK ANYTHING
+    private static volatile boolean PIN_BACKOFF;         // OUT OF LOCKABLE MEMORY UNTIL A PINNED BUFFER IS FREED
+    private static volatile boolean HUGE_PAGES = Boolean.parseBoolean(System.getProperty("videolan4j.hugePages"));
+    static BiFunction<Integer, Integer, ByteBuffer> BUFFER_ALLOCATOR = ByteBufferFactory::alloc1;
     static Consumer<ByteBuffer> BUFFER_DEALLOCATOR = ByteBufferFactory::dealloc1;
 
     /**
@@ -23,27 +49,168 @@ public class ByteBufferFactory {
      *
      * @param size required size for the buffer
      * @return aligned byte buffer
+     * @throws OutOfMemoryError if the buffer budget rejects the allocation
      */
     public static ByteBuffer alloc(int size) {
-        return BUFFER_ALLOCATOR.apply(size);
+        return alloc0(size, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT, false);
     }
 
     /**
-     * Deallocates existing byte buffer
+     * Allocates a new byte buffer with a custom alignment,
+     * like 64 bytes for AVX-512 or 4096 (page size) for GPU upload staging
+     *
+     * @param size required size for the buffer
+     * @param alignment power of two alignment in bytes
+     * @return aligned byte buffer
+     * @throws OutOfMemoryError if the buffer budget rejects the allocation
+     */
+    public static ByteBuffer alloc(int size, int alignment) {
+        checkAlignment(alignment);
+        return alloc0(size, alignment, false);
+    }
+
+    /**
+     * Allocates a new byte buffer without throwing when there is no memory left.
+     * Made for native callbacks, where throwing would crash the process.
+     * <p>The video format callback should return 0 when this returns null</p>
+     *
+     * @param size required size for the buffer
+     * @return aligned byte buffer, or null if rejected by the buffer budget, the JVM or the allocator
+     */
+    public static ByteBuffer tryAlloc(int size) {
+        return alloc0(size, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT, true);
+    }
+
+    /**
+     * Allocates a new byte buffer with a custom alignment without throwing when there is no memory left.
+     * @see #tryAlloc(int)
+     *
+     * @param size required size for the buffer
+     * @param alignment power of two alignment in bytes
+     * @return aligned byte buffer, or null if rejected by the buffer budget, the JVM or the allocator
+     */
+    public static ByteBuffer tryAlloc(int size, int alignment) {
+        checkAlignment(alignment);
+        return alloc0(size, alignment, true);
+    }
+
+    private static ByteBuffer alloc0(int size, int alignment, boolean quiet) {
+        if (!BufferBudget.reserve(size)) {
+            if (quiet) return null;
+            throw new OutOfMemoryError("Buffer budget exhausted, " + size + " bytes requested");
+        }
+
+        ByteBuffer buffer;
+        try {
+            buffer = BUFFER_ALLOCATOR.apply(size, alignment);
+        } catch (OutOfMemoryError | RuntimeException e) {
+            // QUIET CALLERS ARE NATIVE CALLBACKS, NOTHING MAY CROSS BACK INTO LIBVLC
+            BufferBudget.release(size);
+            if (!quiet) throw e;
+            VideoLan4J.LOGGER.warn(IT, "Failed to allocate {} bytes", size, e);
+            return null;
+        }
+
+        if (buffer.capacity() != size) BufferBudget.adjust(buffer.capacity() - size);
+        BufferTracker.allocated(buffer);
+        return buffer;
+    }
+
+    /**
+     * Allocates one buffer per plane, each one with its own alignment
+     *
+     * @param sizes required size of each plane
+     * @param alignments power of two alignment of each plane
+     * @return aligned byte buffers, in the same order as the sizes
+     */
+    public static ByteBuffer[] alloc(int[] sizes, int[] alignments) {
+        if (sizes.length != alignments.length)
+            throw new IllegalArgumentException("Got " + sizes.length + " plane sizes but " + alignments.length + " alignments");
+
+        ByteBuffer[] planes = new ByteBuffer[sizes.length];
+        try {
+            for (int i = 0; i < planes.length; i++) {
+                planes[i] = alloc(sizes[i], alignments[i]);
+            }
+        } catch (RuntimeException | Error e) {
+            dealloc(planes);
+            throw e;
+        }
+        return planes;
+    }
+
+    /**
+     * Deallocates existing byte buffer, buffers already deallocated or not allocated here are ignored
      *
      * @param buffer buffer to release
      */
     public static void dealloc(ByteBuffer buffer) {
+        // ALREADY FREED OR FOREIGN BUFFERS ARE NOT ON THE BUDGET
+        if (!BufferTracker.deallocated(buffer)) return;
         BUFFER_DEALLOCATOR.accept(buffer);
+        BufferBudget.release(buffer.capacity());
+    }
+
+    /**
+     * Deallocates all the existing byte buffers, null entries are skipped
+     *
+     * @param buffers buffers to release
+     */
+    public static void dealloc(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer: buffers) {
+            if (buffer != null) dealloc(buffer);
+        }
+    }
+
+    /**
+     * Snapshot of the memory allocated and deallocated through this factory
+     * @return memory stats
+     */
+    public static BufferStats stats() {
+        return BufferTracker.snapshot();
+    }
+
+    /**
+     * Enables or disables leak tracking, it records the stack trace of every allocation
+     * and warns about buffers collected by the GC without being deallocated.
+     * <p>Can be enabled at startup with <code>-Dvideolan4j.trackBufferLeaks=true</code></p>
+     * @param tracking true to track leaks
+     */
+    public static void setLeakTracking(boolean tracking) {
+        BufferTracker.setTracking(tracking);
+    }
+
+    /**
+     * Limits the memory allocated through this factory, allocations exceeding it are handled by the policy.
+     * Rejected allocations throw {@link OutOfMemoryError} on {@link #alloc(int)} and return null on {@link #tryAlloc(int)}
+     * <p>Buffers cached by {@link BufferPool} free lists are not counted</p>
+     *
+     * @param maxBytes max bytes allocated at the same time, {@link Long#MAX_VALUE} to remove the limit
+     * @param policy what to do when an allocation does not fit
+     * @param timeoutMillis max time to wait with {@link BudgetPolicy#TIMED}
+     */
+    public static void setBudget(long maxBytes, BudgetPolicy policy, long timeoutMillis) {
+        BufferBudget.set(maxBytes, policy, timeoutMillis);
     }
 
     /**
      * Default buffer deallocator
-     * <p>Method is NO-OP but is reserved for future usages</p>
+     * <p>Releases the native memory right away instead of waiting for the GC, the buffer
+     * and any other view of the same memory MUST NOT be used after that.</p>
+     * <p>Releasing twice is safe, the JDK cleaner runs only once per allocation.
+     * Buffers not created by {@link ByteBuffer#allocateDirect(int)} are left to the GC</p>
      * @param buffer buffer to deallocate
      */
     static void dealloc1(ByteBuffer buffer) {
+        if (CLEANER == null || !DIRECT_BUFFER_CLASS.isInstance(buffer)) return;
 
+        // SLICES AND DUPLICATES ARE ATTACHED TO THE BUFFER WHO OWNS THE MEMORY
+        ByteBuffer root = buffer;
+        Object attachment;
+        while (DIRECT_BUFFER_CLASS.isInstance(attachment = UNSAFE.getObject(root, ATTACHMENT_FIELD_OFFSET))) {
+            root = (ByteBuffer) attachment;
+        }
+        CLEANER.accept(root);
     }
 
     /**
@@ -52,15 +219,119 @@ public class ByteBufferFactory {
      * @return byte buffer instance
      */
     static ByteBuffer alloc1(int size) {
-        Buffer buffer = ByteBuffer.allocateDirect(size + VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+        return alloc1(size, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+    }
+
+    /**
+     * Default buffer allocator with a custom alignment
+     * @param size buffer size
+     * @param alignment power of two alignment
+     * @return byte buffer instance
+     */
+    static ByteBuffer alloc1(int size, int alignment) {
+        return align(ByteBuffer.allocateDirect(size + alignment), size, alignment);
+    }
+
+    /**
+     * Slices the first aligned range of a buffer, the slice is attached to it so {@link #dealloc1(ByteBuffer)}
+     * still releases the whole buffer
+     * @param buffer buffer at least <code>size + alignment - 1</code> bytes big
+     * @param size slice size
+     * @param alignment power of two alignment
+     * @return aligned slice in native order
+     */
+    static ByteBuffer align(ByteBuffer buffer, int size, int alignment) {
+        long address = address(buffer);
+        int offset = (int) (-address & (alignment - 1));
+        if (offset + size > buffer.capacity())
+            throw new IllegalStateException("Buffer of " + buffer.capacity() + " bytes cannot hold " + size + " bytes aligned to " + alignment);
+        Buffer result = buffer.duplicate();
+        result.limit(offset + size).position(offset);
+        return ((ByteBuffer) result).slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Enables transparent huge pages for pinned buffers of 2 MiB or bigger on Linux, those get aligned to 2 MiB
+     * which can waste up to 2 MiB per buffer
+     * <p>Can be enabled at startup with <code>-Dvideolan4j.hugePages=true</code></p>
+     * @param hugePages true to advise huge pages
+     */
+    public static void setHugePages(boolean hugePages) {
+        HUGE_PAGES = hugePages;
+    }
+
+    /**
+     * Pinned buffer allocator, locks the buffer in RAM so it can not be swapped out.
+     * On Linux, buffers of 2 MiB or bigger can also be advised to use transparent huge pages, see {@link #setHugePages(boolean)}
+     * <p>Enable it using {@link VideoLan4J#setBufferAllocator(Function)} with this method and
+     * {@link VideoLan4J#setBufferDeallocator(Consumer)} with {@link #deallocPinned(ByteBuffer)}</p>
+     * <p>When the OS refuses to lock more memory (usually a low <code>RLIMIT_MEMLOCK</code>) the buffer
+     * is returned unpinned, and no buffer is pinned again until a pinned one is deallocated</p>
+     *
+     * @param size buffer size
+     * @return page aligned byte buffer
+     */
+    public static ByteBuffer allocPinned(int size) {
+        return allocPinned(size, PAGE_SIZE);
+    }
+
+    /**
+     * Pinned buffer allocator with a custom alignment, page alignment is always granted
+     * @see #allocPinned(int)
+     *
+     * @param size buffer size
+     * @param alignment power of two alignment
+     * @return byte buffer aligned to the page or the given alignment, whatever is bigger
+     */
+    public static ByteBuffer allocPinned(int size, int alignment) {
+        boolean huge = HUGE_PAGES && Platform.isLinux() && size >= HUGE_PAGE_SIZE;
+        ByteBuffer buffer = alloc1(size, Math.max(alignment, huge ? HUGE_PAGE_SIZE : PAGE_SIZE));
+        if (!PINNING || PIN_BACKOFF || size == 0) return buffer;
+
+        long address = address(buffer);
+        Pointer pointer = new Pointer(address);
+        if (huge && LibC.INSTANCE.madvise(pointer, new NativeLong(size), LibC.MADV_HUGEPAGE) != 0) {
+            VideoLan4J.LOGGER.debug(IT, "Transparent huge pages refused for 0x{}, errno {}", Long.toHexString(address), Native.getLastError());
+        }
+
+        boolean locked = Platform.isWindows()
+                ? Kernel32.INSTANCE.VirtualLock(pointer, new size_t(size)) != 0
+                : LibC.INSTANCE.mlock(pointer, new NativeLong(size)) == 0;
+        if (locked) {
+            PINNED.put(address, size);
+            return buffer;
+        }
+
+        int error = Native.getLastError();
+        if (!Platform.isWindows() && error == 1) {
+            // EPERM: PROCESS IS NOT ALLOWED TO LOCK ANYTHING, STOP TRYING
+            PINNING = false;
+            VideoLan4J.LOGGER.warn(IT, "Not allowed to pin memory (error {}), buffers will be pageable", error);
+        } else if (!PIN_BACKOFF) {
+            // ENOMEM OR WORKING SET QUOTA, TRY AGAIN ONCE A PINNED BUFFER IS FREED
+            PIN_BACKOFF = true;
+            VideoLan4J.LOGGER.warn(IT, "Failed to pin {} bytes (error {}), buffers will be pageable until a pinned one is freed. Check RLIMIT_MEMLOCK or the process working set size", size, error);
+        }
+        return buffer;
+    }
+
+    /**
+     * Pinned buffer deallocator, unlocks the buffer memory and releases it
+     * @param buffer buffer created by {@link #allocPinned(int)}
+     */
+    public static void deallocPinned(ByteBuffer buffer) {
         long address = address(buffer);
-        if (!isAligned(address)) {
-            int newPosition = (int) (VideoLan4J.LIBVLC_BUFFER_ALIGNMENT - (address & (VideoLan4J.LIBVLC_BUFFER_ALIGNMENT - 1)));
-            buffer.position(newPosition);
-            size += newPosition;
+        Integer size = PINNED.remove(address);
+        if (size != null) {
+            Pointer pointer = new Pointer(address);
+            if (Platform.isWindows()) {
+                Kernel32.INSTANCE.VirtualUnlock(pointer, new size_t(size));
+            } else {
+                LibC.INSTANCE.munlock(pointer, new NativeLong(size));
+            }
+            PIN_BACKOFF = false;
         }
-        ByteBuffer result = (ByteBuffer) buffer.limit(size);
-        return result.slice().order(ByteOrder.nativeOrder());
+        dealloc1(buffer);
     }
 
     /**
@@ -70,7 +341,54 @@ public class ByteBufferFactory {
      * @return memory address pointer
      */
     public static long address(ByteBuffer buffer) {
-        return UNSAFE.getLong(buffer, ADDRESS_FIELD_OFFSET);
+        return address((Buffer) buffer);
+    }
+
+    /**
+     * Copies bytes between two buffers without touching their positions or limits.
+     * Direct buffers are copied by address with no allocation when Unsafe is available
+     *
+     * @param src source buffer
+     * @param srcOffset source start, in bytes
+     * @param dst destination buffer
+     * @param dstOffset destination start, in bytes
+     * @param length bytes to copy
+     * @throws IndexOutOfBoundsException if any range is outside its buffer
+     */
+    public static void copy(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset, int length) {
+        if (srcOffset < 0 || dstOffset < 0 || length < 0 || srcOffset > src.capacity() - length || dstOffset > dst.capacity() - length)
+            throw new IndexOutOfBoundsException("Copy of " + length + " bytes from " + srcOffset + " to " + dstOffset + " is out of bounds");
+        if (dst.isReadOnly()) throw new ReadOnlyBufferException();
+
+        if (UNSAFE != null && src.isDirect() && dst.isDirect()) {
+            UNSAFE.copyMemory(address(src) + srcOffset, address(dst) + dstOffset, length);
+            return;
+        }
+        ByteBuffer source = (ByteBuffer) src.duplicate().limit(srcOffset + length).position(srcOffset);
+        ((ByteBuffer) dst.duplicate().position(dstOffset)).put(source);
+    }
+
+    /**
+     * Copies bytes from native memory into a buffer without touching its position or limit, like the samples
+     * pointer given by LibVLC callbacks. Copied by address with no allocation when Unsafe is available
+     *
+     * @param srcAddress native address of the first byte
+     * @param dst destination buffer
+     * @param dstOffset destination start, in bytes
+     * @param length bytes to copy
+     * @throws IndexOutOfBoundsException if the range is outside the buffer
+     */
+    public static void copy(long srcAddress, ByteBuffer dst, int dstOffset, int length) {
+        if (dstOffset < 0 || length < 0 || dstOffset > dst.capacity() - length)
+            throw new IndexOutOfBoundsException("Copy of " + length + " bytes to " + dstOffset + " is out of bounds");
+        if (dst.isReadOnly()) throw new ReadOnlyBufferException();
+        if (length == 0) return;
+
+        if (UNSAFE != null && dst.isDirect()) {
+            UNSAFE.copyMemory(srcAddress, address(dst) + dstOffset, length);
+            return;
+        }
+        copy(new Pointer(srcAddress).getByteBuffer(0, length), 0, dst, dstOffset, length);
     }
 
     /**
@@ -79,27 +397,155 @@ public class ByteBufferFactory {
      * @return true if is properly aligned
      */
     public static boolean isAligned(long address) {
-        return (address & (VideoLan4J.LIBVLC_BUFFER_ALIGNMENT - 1)) == 0;
+        return isAligned(address, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+    }
+
+    /**
+     * Validates if the address is aligned to the given alignment
+     * @param address buffer address
+     * @param alignment power of two alignment
+     * @return true if is properly aligned
+     */
+    public static boolean isAligned(long address, int alignment) {
+        return (address & (alignment - 1)) == 0;
+    }
+
+    /**
+     * Validates the alignment is a power of two
+     * @param alignment alignment in bytes
+     * @throws IllegalArgumentException when the alignment is not a power of two
+     */
+    public static void checkAlignment(int alignment) {
+        if (alignment <= 0 || (alignment & (alignment - 1)) != 0)
+            throw new IllegalArgumentException("Alignment must be a power of two, got " + alignment);
     }
 
     /**
      * Get the address of the direct buffer.
+     * <p>Resolved by the fastest strategy available at startup, allocation-free unless
+     * the runtime only allows JNA</p>
      *
      * @param buffer buffer to get
      * @return memory address pointer
      */
     public static long address(Buffer buffer) {
-        return UNSAFE.getLong(buffer, ADDRESS_FIELD_OFFSET);
+        try {
+            return (long) ADDRESS.invokeExact(buffer);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Failed to resolve the buffer address", t);
+        }
     }
 
     static {
+        Unsafe unsafe = null;
         try {
             Field field = Unsafe.class.getDeclaredField("theUnsafe");
             field.setAccessible(true);
-            UNSAFE = (Unsafe) field.get(null);
-            ADDRESS_FIELD_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+            unsafe = (Unsafe) field.get(null);
+        } catch (Throwable t) {
+            VideoLan4J.LOGGER.warn(IT, "Unsafe is not accessible, falling back to slower paths", t);
+        }
+        UNSAFE = unsafe;
+
+        Class<?> directBuffer = null;
+        long attachmentOffset = -1;
+        try {
+            directBuffer = Class.forName("java.nio.DirectByteBuffer");
+            if (UNSAFE != null) attachmentOffset = UNSAFE.objectFieldOffset(directBuffer.getDeclaredField("att"));
+        } catch (Throwable t) {
+            VideoLan4J.LOGGER.warn(IT, "Direct buffer internals are not accessible", t);
+        }
+        DIRECT_BUFFER_CLASS = directBuffer;
+        ATTACHMENT_FIELD_OFFSET = attachmentOffset;
+
+        ADDRESS = addressResolver();
+        CLEANER = attachmentOffset != -1 ? cleaner() : null;
+    }
+
+    /**
+     * Picks the first address strategy that works on this runtime, validated against JNA
+     * <ol>
+     *     <li>{@link Unsafe} read of <code>Buffer.address</code></li>
+     *     <li>Reflective getter of <code>Buffer.address</code>, when java.nio is opened to us</li>
+     *     <li>{@link Native#getDirectBufferPointer(Buffer)}, always works but allocates a {@link Pointer}</li>
+     * </ol>
+     * @return method handle of type <code>(Buffer)long</code>
+     */
+    private static MethodHandle addressResolver() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType type = MethodType.methodType(long.class, Buffer.class);
+        MethodHandle jna;
+        try {
+            jna = lookup.findStatic(ByteBufferFactory.class, "jnaAddress", type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ByteBuffer probe = ByteBuffer.allocateDirect(1);
+        long expected = jnaAddress(probe);
+
+        if (UNSAFE != null) {
+            try {
+                long offset = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+                MethodHandle handle = lookup.findVirtual(Unsafe.class, "getLong", MethodType.methodType(long.class, Object.class, long.class));
+                handle = MethodHandles.insertArguments(handle.bindTo(UNSAFE), 1, offset).asType(type);
+                if ((long) handle.invokeExact((Buffer) probe) == expected) return handle;
+            } catch (Throwable t) {
+                VideoLan4J.LOGGER.debug(IT, "Unsafe address strategy is not available", t);
+            }
+        }
+
+        try {
+            Field field = Buffer.class.getDeclaredField("address");
+            field.setAccessible(true);
+            MethodHandle handle = lookup.unreflectGetter(field);
+            if ((long) handle.invokeExact((Buffer) probe) == expected) return handle;
+        } catch (Throwable t) {
+            VideoLan4J.LOGGER.debug(IT, "Reflective address strategy is not available", t);
+        }
+
+        VideoLan4J.LOGGER.warn(IT, "Using JNA to resolve buffer addresses, every lookup will allocate");
+        return jna;
+    }
+
+    private static long jnaAddress(Buffer buffer) {
+        return Pointer.nativeValue(Native.getDirectBufferPointer(buffer));
+    }
+
+    /**
+     * Looks up the JDK cleaner of direct buffers
+     * <p>Java 9+ exposes it on {@link Unsafe}, Java 8 keeps it on the buffer itself</p>
+     * @return cleaner invoker or null when none is accessible
+     */
+    private static Consumer<ByteBuffer> cleaner() {
+        try {
+            MethodHandle invokeCleaner = MethodHandles.lookup()
+                    .unreflect(Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class))
+                    .bindTo(UNSAFE);
+            return buffer -> {
+                try {
+                    invokeCleaner.invokeExact(buffer);
+                } catch (Throwable t) {
+                    throw new IllegalStateException("Failed to release direct buffer", t);
+                }
+            };
+        } catch (NoSuchMethodException | IllegalAccessException ignored) {}
+
+        try {
+            Method cleaner = DIRECT_BUFFER_CLASS.getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                try {
+                    Object c = cleaner.invoke(buffer);
+                    if (c != null) clean.invoke(c);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to release direct buffer", e);
+                }
+            };
         } catch (Exception e) {
-            throw new RuntimeException(e);
+            VideoLan4J.LOGGER.warn(IT, "No direct buffer cleaner available, buffers will be released by the GC", e);
         }
+        return null;
     }
 }
@@ -0,0 +1,119 @@
+package org.watermedia.videolan4j;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Direct buffer handle with its native address and a cached {@link Pointer},
+ * made to be handed to LibVLC on every frame without creating garbage
+ */
+public class NativeBuffer {
+    private final ByteBuffer buffer;
+    private final long address;
+    private final Pointer pointer;
+    private final boolean owned;
+    private boolean released;
+
+    private NativeBuffer(ByteBuffer buffer, boolean owned) {
+        this.buffer = buffer;
+        this.address = ByteBufferFactory.address(buffer);
+        this.pointer = new Pointer(address);
+        this.owned = owned;
+    }
+
+    /**
+     * Allocates a new buffer using {@link ByteBufferFactory#alloc(int)}
+     * @param size required size for the buffer
+     * @return buffer handle
+     */
+    public static NativeBuffer alloc(int size) {
+        return new NativeBuffer(ByteBufferFactory.alloc(size), true);
+    }
+
+    /**
+     * Allocates a new buffer using {@link ByteBufferFactory#alloc(int, int)}
+     * @param size required size for the buffer
+     * @param alignment power of two alignment
+     * @return buffer handle
+     */
+    public static NativeBuffer alloc(int size, int alignment) {
+        return new NativeBuffer(ByteBufferFactory.alloc(size, alignment), true);
+    }
+
+    /**
+     * Wraps an existing direct buffer, {@link #release()} will not deallocate it
+     * @param buffer direct buffer
+     * @return buffer handle
+     */
+    public static NativeBuffer wrap(ByteBuffer buffer) {
+        if (!buffer.isDirect()) throw new IllegalArgumentException("Buffer is not direct");
+        return new NativeBuffer(buffer, false);
+    }
+
+    /**
+     * Writes the native address into the given index of the planes table of the lock callback.
+     * Does not allocate any object
+     * @see org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t
+     *
+     * @param planes planes table, allocated by LibVLC
+     * @param plane plane index
+     */
+    public void write(PointerByReference planes, int plane) {
+        write(planes.getPointer(), plane, address);
+    }
+
+    /**
+     * Writes the native address of each buffer into the planes table of the lock callback.
+     * Does not allocate any object
+     * @see org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t
+     *
+     * @param planes planes table, allocated by LibVLC
+     * @param buffers buffer of each plane
+     */
+    public static void write(PointerByReference planes, NativeBuffer[] buffers) {
+        Pointer table = planes.getPointer();
+        for (int i = 0; i < buffers.length; i++) {
+            write(table, i, buffers[i].address);
+        }
+    }
+
+    private static void write(Pointer table, int index, long address) {
+        if (Native.POINTER_SIZE == 8) {
+            table.setLong((long) index * 8, address);
+        } else {
+            table.setInt((long) index * 4, (int) address);
+        }
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public long address() {
+        return address;
+    }
+
+    /**
+     * @return cached pointer to the buffer start, the same instance on every call
+     */
+    public Pointer pointer() {
+        return pointer;
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Deallocates the buffer when it was allocated by this handle, the handle MUST NOT be used after that.
+     * Releasing twice does nothing
+     */
+    public synchronized void release() {
+        if (released) return;
+        released = true;
+        if (owned) ByteBufferFactory.dealloc(buffer);
+    }
+}
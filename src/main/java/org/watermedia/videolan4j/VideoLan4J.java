@@ -14,6 +14,7 @@ import org.watermedia.videolan4j.binding.lib.LibVlc;
 import java.io.File;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -23,6 +24,9 @@ public class VideoLan4J {
     public static final String LIBVLC_NAME = Platform.isWindows() ? "libvlc" : "vlc";
     public static final String LIBVLCCORE_NAME = Platform.isWindows() ? "libvlccore" : "vlccore";
     public static final Version LIBVLC_MIN_VERSION = new Version("3.0.0");
+    /**
+     * Default buffer alignment, custom ones can be requested using {@link ByteBufferFactory#alloc(int, int)}
+     */
     public static final int LIBVLC_BUFFER_ALIGNMENT = 32;
     public static final int PID = Platform.isWindows() ? Kernel32.INSTANCE.GetCurrentProcessId() : LibC.INSTANCE.getpid();
 
@@ -58,10 +62,30 @@ public class VideoLan4J {
     /**
      * Replaces the default direct bytebuffer builder
      * in favor of better, modern or even more direct implementations
+     * <p>The builder only gets the size, when its buffer is not aligned as requested it is released and a bigger
+     * one is built, handing out an aligned slice of it. The deallocator gets that slice, use
+     * {@link #setAlignedBufferAllocator(BiFunction)} to avoid the extra bytes</p>
      *
      * @param bufferBuilder function implementation
      */
     public static void setBufferAllocator(Function<Integer, ByteBuffer> bufferBuilder) {
+        ByteBufferFactory.BUFFER_ALLOCATOR = (size, alignment) -> {
+            ByteBuffer buffer = bufferBuilder.apply(size);
+            if (ByteBufferFactory.isAligned(ByteBufferFactory.address(buffer), alignment)) return buffer;
+
+            // NEVER COUNTED, SKIP THE ACCOUNTING OF THE PUBLIC DEALLOC
+            ByteBufferFactory.BUFFER_DEALLOCATOR.accept(buffer);
+            return ByteBufferFactory.align(bufferBuilder.apply(size + alignment - 1), size, alignment);
+        };
+    }
+
+    /**
+     * Replaces the default direct bytebuffer builder
+     * in favor of better, modern or even more direct implementations
+     *
+     * @param bufferBuilder function implementation, receives the size and the power of two alignment
+     */
+    public static void setAlignedBufferAllocator(BiFunction<Integer, Integer, ByteBuffer> bufferBuilder) {
         ByteBufferFactory.BUFFER_ALLOCATOR = bufferBuilder;
     }
 
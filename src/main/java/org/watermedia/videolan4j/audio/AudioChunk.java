@@ -0,0 +1,66 @@
+package org.watermedia.videolan4j.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Samples of a single LibVLC audio play callback, read through an {@link AudioRing}.
+ * <p>The same instance is reused for every chunk, it is only valid until the next acquire or release</p>
+ */
+public final class AudioChunk {
+    private final ByteBuffer buffer;
+    private final long base;
+    private long pts;
+    private int samples;
+    private int offset;
+    private int length;
+
+    AudioChunk(ByteBuffer buffer, long base) {
+        this.buffer = buffer;
+        this.base = base;
+    }
+
+    void set(long pts, int samples, int offset, int length) {
+        this.pts = pts;
+        this.samples = samples;
+        this.offset = offset;
+        this.length = length;
+        buffer.clear();
+        buffer.limit(offset + length);
+        buffer.position(offset);
+    }
+
+    /**
+     * @return expected play time of the first sample given by LibVLC, in microseconds
+     */
+    public long pts() {
+        return pts;
+    }
+
+    /**
+     * @return amount of samples per channel
+     */
+    public int samples() {
+        return samples;
+    }
+
+    /**
+     * @return size of the samples in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return view of the samples from position to limit, shared across chunks
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return native address of the first sample
+     */
+    public long address() {
+        return base + offset;
+    }
+}
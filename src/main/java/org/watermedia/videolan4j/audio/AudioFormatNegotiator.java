@@ -0,0 +1,118 @@
+package org.watermedia.videolan4j.audio;
+
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_audio_setup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drives the audio format callback of an {@link AudioRing}, LibVLC converts the samples to the requested
+ * format, resamples them to the requested rate and downmixes or upmixes them to the requested channels
+ * before the play callback, so none of that happens in Java.
+ * <p>Each new audio output (new media, track changes) negotiates again, the source rate and channels
+ * are kept when no rate or channels are requested</p>
+ */
+public class AudioFormatNegotiator {
+    private static final Marker IT = MarkerManager.getMarker("AudioFormatNegotiator");
+    public static final int MAX_RATE = 192000;
+    public static final int MAX_CHANNELS = 8;
+
+    private final AudioRing ring;
+    private final SampleFormat format;
+    private final int rate;
+    private final int channels;
+    private final libvlc_audio_setup_cb setupCallback = this::setup;
+
+    // LAST NEGOTIATED FORMAT
+    private volatile int negotiatedRate;
+    private volatile int negotiatedChannels;
+
+    /**
+     * Creates a negotiator, like <code>(ring, SampleFormat.FL32, 48000, 2)</code> for a stereo float mixer
+     * @param ring ring receiving the samples
+     * @param format sample format requested to LibVLC
+     * @param rate sample rate requested to LibVLC, 0 to keep the source rate
+     * @param channels channels requested to LibVLC, 0 to keep the source channels
+     */
+    public AudioFormatNegotiator(AudioRing ring, SampleFormat format, int rate, int channels) {
+        if (format == null) throw new IllegalArgumentException("Sample format cannot be null");
+        if (rate < 0 || rate > MAX_RATE) throw new IllegalArgumentException("Rate must be between 0 and " + MAX_RATE + ", got " + rate);
+        if (channels < 0 || channels > MAX_CHANNELS) throw new IllegalArgumentException("Channels must be between 0 and " + MAX_CHANNELS + ", got " + channels);
+        this.ring = ring;
+        this.format = format;
+        this.rate = rate;
+        this.channels = channels;
+    }
+
+    /**
+     * Sets the audio and format callbacks of the media player
+     * @param player media player instance
+     */
+    public void attach(libvlc_media_player_t player) {
+        ring.attach(player);
+        LibVlc.libvlc_audio_set_format_callbacks(player, setupCallback, null);
+    }
+
+    public libvlc_audio_setup_cb setupCallback() {
+        return setupCallback;
+    }
+
+    public AudioRing ring() {
+        return ring;
+    }
+
+    public SampleFormat format() {
+        return format;
+    }
+
+    /**
+     * @return last negotiated sample rate, 0 if there is none yet
+     */
+    public int rate() {
+        return negotiatedRate;
+    }
+
+    /**
+     * @return last negotiated channels, 0 if there is none yet
+     */
+    public int channels() {
+        return negotiatedChannels;
+    }
+
+    /**
+     * Picks the rate and channels of the samples, override it to negotiate differently
+     * @param rate source sample rate
+     * @param channels source channels
+     * @return rate and channels given to LibVLC
+     */
+    protected int[] negotiate(int rate, int channels) {
+        return new int[] { this.rate != 0 ? this.rate : rate, this.channels != 0 ? this.channels : channels };
+    }
+
+    protected int setup(PointerByReference data, PointerByReference format, IntByReference rate, IntByReference channels) {
+        VideoLan4J.checkClassLoader(AudioFormatNegotiator.class.getClassLoader());
+        String source = new String(format.getPointer().getByteArray(0, 4), StandardCharsets.US_ASCII);
+        int sourceRate = rate.getValue(), sourceChannels = channels.getValue();
+        int[] result = negotiate(sourceRate, sourceChannels);
+        if (result[0] <= 0 || result[0] > MAX_RATE || result[1] <= 0 || result[1] > MAX_CHANNELS) {
+            VideoLan4J.LOGGER.error(IT, "Invalid audio format {} {}Hz {} channels", this.format.code(), result[0], result[1]);
+            return -1;
+        }
+
+        format.getPointer().write(0, this.format.code().getBytes(StandardCharsets.US_ASCII), 0, 4);
+        rate.setValue(result[0]);
+        channels.setValue(result[1]);
+        ring.setFrameSize(this.format.bytes() * result[1]);
+        negotiatedRate = result[0];
+        negotiatedChannels = result[1];
+        VideoLan4J.LOGGER.debug(IT, "Negotiated {} {}Hz {} channels (source {} {}Hz {} channels)",
+                this.format.code(), result[0], result[1], source, sourceRate, sourceChannels);
+        return 0;
+    }
+}
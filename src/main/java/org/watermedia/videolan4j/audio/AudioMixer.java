@@ -0,0 +1,234 @@
+package org.watermedia.videolan4j.audio;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mixes the audio of many media players into a single stereo float output, one thread for all of them.
+ * <p>Each player plays into its own {@link AudioRing}, negotiated by LibVLC to FL32 stereo at the mixer rate.
+ * The mixing thread reads a period from every source, applies its gain and pan, sums them and writes the result
+ * into the {@link AudioSink}. Sources short of samples play silence, and sources ahead by more than a few chunks
+ * skip them, so the latency stays bounded. Mixing does not allocate</p>
+ * <p>Without a mixing thread {@link #mix(float[], int)} can be pulled from the output thread instead</p>
+ */
+public class AudioMixer implements AutoCloseable {
+    private static final Marker IT = MarkerManager.getMarker("AudioMixer");
+    public static final int CHANNELS = 2;
+    private static final int MAX_CHUNKS = 4;
+
+    private final int rate;
+    private final int period;
+    private final AudioSink sink;
+    private final float[] buffer;
+    private volatile MixerSource[] sources = new MixerSource[0];
+    private final ArrayList<MixerSource> detached = new ArrayList<>(); // REMOVED, THEIR PLAYERS STILL CALL BACK
+    private volatile float gain = 1;
+    private volatile boolean running;
+    private Thread thread;
+
+    private final LongAdder periods = new LongAdder();
+
+    /**
+     * Creates a mixer
+     * @param rate output sample rate, like 48000
+     * @param period samples per channel mixed at once, like 480 for 10 milliseconds at 48 kHz
+     * @param sink output of the mixing thread, can be null if {@link #mix(float[], int)} is pulled instead
+     */
+    public AudioMixer(int rate, int period, AudioSink sink) {
+        if (rate <= 0 || rate > AudioFormatNegotiator.MAX_RATE) throw new IllegalArgumentException("Rate must be between 1 and " + AudioFormatNegotiator.MAX_RATE + ", got " + rate);
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive, got " + period);
+        this.rate = rate;
+        this.period = period;
+        this.sink = sink;
+        this.buffer = new float[period * CHANNELS];
+    }
+
+    /**
+     * Adds a media player, its audio callbacks are set to a new ring negotiated to FL32 stereo at the mixer rate
+     * @param player media player instance, the audio callbacks must be set before playing
+     * @return new source, the ring is released once removed
+     */
+    public MixerSource add(libvlc_media_player_t player) {
+        // HALF A SECOND OF SAMPLES, LIBVLC CHUNKS ARE 10 TO 40 MILLISECONDS
+        AudioRing ring = new AudioRing(rate / 2 * CHANNELS * Float.BYTES, 64);
+        AudioFormatNegotiator negotiator = new AudioFormatNegotiator(ring, SampleFormat.FL32, rate, CHANNELS);
+        negotiator.attach(player);
+        return this.add(new MixerSource(ring, negotiator, player, MAX_CHUNKS));
+    }
+
+    /**
+     * Adds a ring already attached to a media player, it MUST deliver FL32 samples at the mixer rate
+     * @param ring audio ring, its single consumer becomes the mixer
+     * @return new source, the ring is not released once removed
+     */
+    public MixerSource add(AudioRing ring) {
+        return this.add(new MixerSource(ring, null, null, MAX_CHUNKS));
+    }
+
+    private synchronized MixerSource add(MixerSource source) {
+        MixerSource[] result = Arrays.copyOf(sources, sources.length + 1);
+        result[result.length - 1] = source;
+        sources = result;
+        return source;
+    }
+
+    /**
+     * Removes a source, returns once the source is no longer mixed.
+     * A player added by the mixer can keep playing, its samples are dropped. The mixer keeps its callbacks
+     * reachable until {@link #released(libvlc_media_player_t)}, LibVLC crashes calling a collected callback
+     *
+     * @param source source to remove
+     */
+    public void remove(MixerSource source) {
+        synchronized (this) {
+            MixerSource[] result = new MixerSource[sources.length];
+            int count = 0;
+            for (MixerSource s: sources) {
+                if (s != source) result[count++] = s;
+            }
+            if (count == sources.length) return;
+            sources = Arrays.copyOf(result, count);
+            if (source.player() != null) detached.add(source);
+        }
+        // WAITS FOR THE CURRENT MIX
+        synchronized (buffer) {
+            source.close();
+        }
+    }
+
+    /**
+     * Forgets the removed sources of a player, call it once the player is released and no longer calls back
+     * @param player media player added by {@link #add(libvlc_media_player_t)}
+     */
+    public synchronized void released(libvlc_media_player_t player) {
+        detached.removeIf(source -> source.player().equals(player));
+    }
+
+    /**
+     * @return sources being mixed
+     */
+    public int sources() {
+        return sources.length;
+    }
+
+    /**
+     * @param gain linear master gain, applied before clipping
+     */
+    public void setGain(float gain) {
+        if (gain < 0) throw new IllegalArgumentException("Gain cannot be negative, got " + gain);
+        this.gain = gain;
+    }
+
+    public float gain() {
+        return gain;
+    }
+
+    public int rate() {
+        return rate;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    /**
+     * @return periods mixed
+     */
+    public long periods() {
+        return periods.sum();
+    }
+
+    /**
+     * Mixes the next samples of all sources, must be called from a single thread
+     * @param out interleaved stereo output, clipped between -1 and 1
+     * @param frames samples per channel to mix
+     */
+    public void mix(float[] out, int frames) {
+        if (out.length < frames * CHANNELS) throw new IllegalArgumentException("Output holds less than " + frames + " frames");
+        synchronized (buffer) {
+            Arrays.fill(out, 0, frames * CHANNELS, 0f);
+            for (MixerSource source: sources) {
+                source.mix(out, frames);
+            }
+            float gain = this.gain;
+            for (int i = 0; i < frames * CHANNELS; i++) {
+                out[i] = Math.max(-1f, Math.min(1f, out[i] * gain));
+            }
+        }
+        periods.increment();
+    }
+
+    /**
+     * Starts the mixing thread, it writes a period into the sink every period of time
+     * @throws IllegalStateException if there is no sink
+     */
+    public synchronized void start() {
+        if (sink == null) throw new IllegalStateException("Mixer has no sink");
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "AudioMixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the mixing thread, waiting for the current period
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = this.thread;
+            this.thread = null;
+        }
+        if (thread == null || thread == Thread.currentThread()) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the mixing thread and removes all the sources. Stop the media players before, and keep the mixer
+     * reachable until they are released
+     */
+    @Override
+    public void close() {
+        this.stop();
+        for (MixerSource source: sources) {
+            this.remove(source);
+        }
+    }
+
+    private void run() {
+        long interval = period * 1_000_000_000L / rate;
+        long next = System.nanoTime();
+        try {
+            while (running) {
+                this.mix(buffer, period);
+                sink.write(buffer, period);
+
+                next += interval;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                } else if (wait < -interval * MAX_CHUNKS) {
+                    next = System.nanoTime(); // FELL BEHIND, DO NOT BURST TO CATCH UP
+                }
+            }
+        } catch (RuntimeException e) {
+            VideoLan4J.LOGGER.error(IT, "Mixing thread stopped", e);
+            running = false;
+        }
+    }
+}
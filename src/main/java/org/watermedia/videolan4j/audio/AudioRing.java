@@ -0,0 +1,255 @@
+package org.watermedia.videolan4j.audio;
+
+import com.sun.jna.Pointer;
+import org.watermedia.videolan4j.ByteBufferFactory;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_audio_flush_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_audio_play_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free single producer single consumer ring of audio samples, fed by the LibVLC audio play callback.
+ * <p>Samples are copied straight from the LibVLC pointer into an aligned off-heap slab, each play callback becomes
+ * one contiguous chunk tagged with its PTS. The consumer reads chunks in order through a reusable {@link AudioChunk},
+ * neither side allocates nor waits for the other. When the ring is full the new chunk is dropped</p>
+ */
+public class AudioRing {
+    private static final int CHUNK_ALIGNMENT = 16;
+
+    private final ByteBuffer slab;
+    private final int capacity;
+    private final AudioChunk chunk;
+
+    // CHUNK TABLE, WRITTEN BY THE PRODUCER BEFORE PUBLISHING THE TAIL
+    private final long[] starts;
+    private final int[] lengths;
+    private final int[] samples;
+    private final long[] pts;
+    private final AtomicLong head = new AtomicLong(); // NEXT CHUNK TO READ
+    private final AtomicLong tail = new AtomicLong(); // NEXT CHUNK TO WRITE
+    private volatile long flushed;                    // CHUNKS BEFORE IT WERE FLUSHED
+
+    // BYTE POSITIONS, ALWAYS GROWING
+    private long writePos;          // PRODUCER ONLY
+    private volatile long readPos;  // END OF THE LAST RELEASED CHUNK
+    private boolean reading;        // CONSUMER ONLY
+    private volatile int frameSize;
+    private volatile boolean writing; // PRODUCER IS COPYING, FREE WAITS FOR IT
+    private volatile boolean closed;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+
+    private final libvlc_audio_play_cb playCallback = this::play;
+    private final libvlc_audio_flush_cb flushCallback = this::flush;
+
+    /**
+     * Creates a ring
+     * @param capacity size of the slab in bytes, rounded up to 16 bytes. Should hold some hundreds of milliseconds
+     * @param chunks max amount of queued chunks, LibVLC usually plays chunks of 10 to 40 milliseconds
+     */
+    public AudioRing(int capacity, int chunks) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        if (chunks <= 0) throw new IllegalArgumentException("Chunks must be positive, got " + chunks);
+        this.capacity = (capacity + CHUNK_ALIGNMENT - 1) & -CHUNK_ALIGNMENT;
+        this.slab = ByteBufferFactory.alloc(this.capacity);
+        this.chunk = new AudioChunk(slab.duplicate().order(ByteOrder.nativeOrder()), ByteBufferFactory.address(slab));
+        this.starts = new long[chunks];
+        this.lengths = new int[chunks];
+        this.samples = new int[chunks];
+        this.pts = new long[chunks];
+    }
+
+    /**
+     * Sets the audio callbacks of the media player, the format callbacks are required
+     * @see AudioFormatNegotiator
+     * @param player media player instance
+     */
+    public void attach(libvlc_media_player_t player) {
+        LibVlc.libvlc_audio_set_callbacks(player, playCallback, null, null, flushCallback, null, null);
+    }
+
+    /**
+     * Sets the audio callbacks and a fixed audio format on the media player
+     * @param player media player instance
+     * @param format sample format
+     * @param rate sample rate
+     * @param channels amount of channels
+     */
+    public void attach(libvlc_media_player_t player, SampleFormat format, int rate, int channels) {
+        this.setFrameSize(format.bytes() * channels);
+        this.attach(player);
+        LibVlc.libvlc_audio_set_format(player, format.code(), rate, channels);
+    }
+
+    public libvlc_audio_play_cb playCallback() {
+        return playCallback;
+    }
+
+    public libvlc_audio_flush_cb flushCallback() {
+        return flushCallback;
+    }
+
+    /**
+     * Sets the size of a sample of all channels, MUST be set before LibVLC plays any sample
+     * @param bytes sample format bytes multiplied by the channels
+     */
+    public void setFrameSize(int bytes) {
+        if (bytes <= 0) throw new IllegalArgumentException("Frame size must be positive, got " + bytes);
+        this.frameSize = bytes;
+    }
+
+    public int frameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Copies samples into the ring, called from the play callback. Must be called from a single thread
+     * @param address native address of the first sample
+     * @param count amount of samples per channel
+     * @param pts expected play time, in microseconds
+     * @return false if the chunk was dropped because the ring is full or closed
+     */
+    public boolean write(long address, int count, long pts) {
+        writing = true;
+        try {
+            return !closed && this.write0(address, count, pts);
+        } finally {
+            writing = false;
+        }
+    }
+
+    private boolean write0(long address, int count, long pts) {
+        int length = count * frameSize;
+        long tail = this.tail.get();
+        if (length <= 0 || length > capacity || tail - head.get() >= starts.length) {
+            overruns.increment();
+            return false;
+        }
+
+        // CHUNKS NEVER WRAP, THE REST OF THE SLAB IS SKIPPED INSTEAD
+        long start = (writePos + CHUNK_ALIGNMENT - 1) & -CHUNK_ALIGNMENT;
+        int offset = (int) (start % capacity);
+        if (offset + length > capacity) {
+            start += capacity - offset;
+            offset = 0;
+        }
+        if (start + length - readPos > capacity) {
+            overruns.increment();
+            return false;
+        }
+
+        ByteBufferFactory.copy(address, slab, offset, length);
+        int index = (int) (tail % starts.length);
+        starts[index] = start;
+        lengths[index] = length;
+        samples[index] = count;
+        this.pts[index] = pts;
+        writePos = start + length;
+        this.tail.lazySet(tail + 1);
+        written.increment();
+        return true;
+    }
+
+    /**
+     * Gets the oldest chunk and holds it until the next call or {@link #release()}.
+     * Must be called from a single thread
+     *
+     * @return oldest chunk, or null if there is none. The instance is shared across calls
+     */
+    public AudioChunk acquire() {
+        this.release();
+        long head = this.head.get(), tail = this.tail.get();
+
+        // SKIP THE FLUSHED CHUNKS
+        long flushed = Math.min(this.flushed, tail);
+        if (head < flushed) {
+            this.readPos = end(flushed - 1);
+            this.head.lazySet(head = flushed);
+        }
+        if (head == tail) return null;
+
+        int index = (int) (head % starts.length);
+        chunk.set(pts[index], samples[index], (int) (starts[index] % capacity), lengths[index]);
+        reading = true;
+        return chunk;
+    }
+
+    /**
+     * Gives back the held chunk, its bytes can be written again
+     */
+    public void release() {
+        if (!reading) return;
+        reading = false;
+        long head = this.head.get();
+        this.readPos = end(head);
+        this.head.lazySet(head + 1);
+    }
+
+    /**
+     * @return queued chunks, the held one included
+     */
+    public int available() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return chunks written into the ring
+     */
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * @return chunks dropped because the ring was full
+     */
+    public long overruns() {
+        return overruns.sum();
+    }
+
+    /**
+     * Stops accepting samples, LibVLC can keep calling the play callback and its samples are dropped
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    /**
+     * @return true if the ring no longer accepts samples
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the ring and releases the slab once the play callback in progress, if any, is done copying.
+     * The callbacks can stay set on the player, the consumer MUST be done
+     */
+    public void free() {
+        this.close();
+        while (writing) {
+            Thread.yield();
+        }
+        ByteBufferFactory.dealloc(slab);
+    }
+
+    protected void play(Pointer data, Pointer samples, int count, long pts) {
+        VideoLan4J.checkClassLoader(AudioRing.class.getClassLoader());
+        this.write(Pointer.nativeValue(samples), count, pts);
+    }
+
+    protected void flush(Pointer data, long pts) {
+        this.flushed = tail.get();
+    }
+
+    private long end(long chunk) {
+        int index = (int) (chunk % starts.length);
+        return starts[index] + lengths[index];
+    }
+}
@@ -0,0 +1,17 @@
+package org.watermedia.videolan4j.audio;
+
+/**
+ * Output of an {@link AudioMixer}, like an OpenAL streaming source or a <code>javax.sound</code> line
+ */
+@FunctionalInterface
+public interface AudioSink {
+
+    /**
+     * Writes a mixed period, called from the mixing thread. May block until the output has room,
+     * the mixer then follows the output pace
+     *
+     * @param samples interleaved stereo samples between -1 and 1, reused for the next period
+     * @param frames amount of samples per channel
+     */
+    void write(float[] samples, int frames);
+}
@@ -0,0 +1,146 @@
+package org.watermedia.videolan4j.audio;
+
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Input of an {@link AudioMixer}, reads the FL32 samples of an {@link AudioRing} at the mixer rate.
+ * <p>Gain and pan can be changed at any time, they apply from the next mixed period</p>
+ */
+public class MixerSource {
+    private final AudioRing ring;
+    private final AudioFormatNegotiator negotiator; // KEEPS THE CALLBACKS REACHABLE
+    private final libvlc_media_player_t player;
+    private final int maxChunks;
+    private volatile float gain = 1;
+    private volatile float pan;
+    private volatile float left = (float) Math.cos(Math.PI / 4);
+    private volatile float right = (float) Math.sin(Math.PI / 4);
+
+    // MIXING THREAD ONLY
+    private AudioChunk chunk;
+    private int offset;
+
+    private final LongAdder underruns = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    MixerSource(AudioRing ring, AudioFormatNegotiator negotiator, libvlc_media_player_t player, int maxChunks) {
+        this.ring = ring;
+        this.negotiator = negotiator;
+        this.player = player;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * @param gain linear gain, 1 keeps the source level
+     */
+    public synchronized void setGain(float gain) {
+        if (gain < 0) throw new IllegalArgumentException("Gain cannot be negative, got " + gain);
+        this.gain = gain;
+        this.update();
+    }
+
+    public float gain() {
+        return gain;
+    }
+
+    /**
+     * Sets the constant power pan, the center plays each channel at -3 dB
+     * @param pan -1 for left, 0 for center and 1 for right
+     */
+    public synchronized void setPan(float pan) {
+        if (pan < -1 || pan > 1) throw new IllegalArgumentException("Pan must be between -1 and 1, got " + pan);
+        this.pan = pan;
+        this.update();
+    }
+
+    public float pan() {
+        return pan;
+    }
+
+    public AudioRing ring() {
+        return ring;
+    }
+
+    /**
+     * @return media player added by the mixer, null when the ring was added instead
+     */
+    public libvlc_media_player_t player() {
+        return player;
+    }
+
+    /**
+     * @return periods partially or fully filled with silence because the ring had no samples
+     */
+    public long underruns() {
+        return underruns.sum();
+    }
+
+    /**
+     * @return chunks skipped to keep the latency bounded
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * Adds the next samples into the interleaved stereo mix
+     */
+    void mix(float[] out, int frames) {
+        float left = this.left, right = this.right;
+
+        // SKIP WHAT PILED UP, THE MIX STAYS WITHIN MAX CHUNKS OF THE SOURCE
+        while (ring.available() > maxChunks) {
+            if (chunk != null && offset < chunk.length()) skipped.increment();
+            chunk = ring.acquire();
+            offset = 0;
+        }
+
+        int written = 0;
+        while (written < frames) {
+            if (chunk == null || offset >= chunk.length()) {
+                chunk = ring.acquire();
+                offset = 0;
+                if (chunk == null) {
+                    underruns.increment();
+                    return;
+                }
+            }
+
+            // MONO PLAYS ON BOTH SIDES, CHANNELS AFTER THE SECOND ONE ARE IGNORED
+            int channels = Math.max(1, ring.frameSize() / Float.BYTES);
+            int frameBytes = channels * Float.BYTES;
+            int count = Math.min(frames - written, (chunk.length() - offset) / frameBytes);
+            if (count == 0) {
+                offset = chunk.length();
+                continue;
+            }
+            ByteBuffer buffer = chunk.buffer();
+            int at = buffer.position() + offset, stereo = channels > 1 ? Float.BYTES : 0;
+            for (int i = written * 2, end = (written + count) * 2; i < end; i += 2, at += frameBytes) {
+                out[i] += buffer.getFloat(at) * left;
+                out[i + 1] += buffer.getFloat(at + stereo) * right;
+            }
+            written += count;
+            offset += count * frameBytes;
+        }
+    }
+
+    /**
+     * Releases the held chunk, called by the mixer once the source is removed.
+     * Rings created by the mixer are freed, their play callback drops the samples from now on
+     */
+    void close() {
+        ring.release();
+        chunk = null;
+        if (negotiator != null) ring.free();
+    }
+
+    private void update() {
+        double angle = (pan + 1) * Math.PI / 4;
+        this.left = (float) (gain * Math.cos(angle));
+        this.right = (float) (gain * Math.sin(angle));
+    }
+}
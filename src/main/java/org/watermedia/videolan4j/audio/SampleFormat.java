@@ -0,0 +1,52 @@
+package org.watermedia.videolan4j.audio;
+
+/**
+ * Audio sample formats LibVLC can deliver to the audio callbacks, samples are interleaved and in native byte order
+ */
+public enum SampleFormat {
+    /**
+     * Signed 16 bits integer
+     */
+    S16N("S16N", 2),
+    /**
+     * Signed 32 bits integer
+     */
+    S32N("S32N", 4),
+    /**
+     * 32 bits float, between -1 and 1
+     */
+    FL32("FL32", 4);
+
+    private final String code;
+    private final int bytes;
+
+    SampleFormat(String code, int bytes) {
+        this.code = code;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return 4 characters format code
+     */
+    public String code() {
+        return code;
+    }
+
+    /**
+     * @return bytes of a single sample of one channel
+     */
+    public int bytes() {
+        return bytes;
+    }
+
+    /**
+     * @param code 4 characters format code
+     * @return format of the code, null if unsupported
+     */
+    public static SampleFormat of(String code) {
+        for (SampleFormat format: values()) {
+            if (format.code.equals(code)) return format;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,218 @@
+package org.watermedia.videolan4j.audio;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the video of a player in sync with its audio when both go through callbacks.
+ * <p>LibVLC stamps each audio chunk with the {@link LibVlc#libvlc_clock()} time it expects it to be heard, but the
+ * consumer plays it later, after its own buffers and the device. The audio consumer reports when each chunk is
+ * heard with {@link #played(long, long)}, which estimates that output latency and drives the master clock: the
+ * media time being heard right now, in clock microseconds</p>
+ * <p>Video follows the master clock by polling the frame due at it, like
+ * <code>scheduler.poll(sync.clock() + scheduler.interval())</code>, or asking {@link #decide(long)} per frame.
+ * {@link #correct(libvlc_media_player_t)} moves the latency into the LibVLC audio delay instead, so the audio
+ * is delivered earlier and the video needs no compensation</p>
+ */
+public class SyncController {
+    private static final Marker IT = MarkerManager.getMarker("SyncController");
+    private static final int SMOOTHING = 16;
+    private static final long MAX_EXTRAPOLATION = 500_000; // STOPS THE CLOCK WHEN AUDIO STOPS, LIKE ON PAUSE
+
+    private final long threshold;
+    private volatile long tolerance = 10_000;
+
+    // LATEST HEARD CHUNK
+    private boolean measured;
+    private long latency;
+    private long lastPts;
+    private long lastHeard;
+    private long delay;
+
+    private final LongAdder shown = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder repeated = new LongAdder();
+
+    /**
+     * Creates a controller allowing 40 milliseconds of A/V offset
+     */
+    public SyncController() {
+        this(40_000);
+    }
+
+    /**
+     * Creates a controller
+     * @param threshold max offset between a frame and the master clock before it gets dropped or repeated, in microseconds
+     */
+    public SyncController(long threshold) {
+        if (threshold <= 0) throw new IllegalArgumentException("Threshold must be positive, got " + threshold);
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return current LibVLC clock, in microseconds
+     */
+    public static long now() {
+        return LibVlc.libvlc_clock();
+    }
+
+    /**
+     * Sets the latency change needed before {@link #correct(libvlc_media_player_t)} updates the audio delay
+     * @param tolerance latency change, in microseconds
+     */
+    public void setTolerance(long tolerance) {
+        if (tolerance < 0) throw new IllegalArgumentException("Tolerance cannot be negative, got " + tolerance);
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Reports an audio chunk going to the output, called by the audio consumer
+     * @param pts PTS of the chunk, see {@link AudioChunk#pts()}
+     * @param outputDelay time until its first sample is heard, like the bytes queued on the output line, in microseconds
+     */
+    public void played(long pts, long outputDelay) {
+        long heard = time() + outputDelay;
+        synchronized (this) {
+            long sample = heard - pts;
+            this.latency = measured ? latency + (sample - latency) / SMOOTHING : sample;
+            this.measured = true;
+            this.lastPts = pts;
+            this.lastHeard = heard;
+        }
+    }
+
+    /**
+     * Forgets the reported chunks and the audio delay, call it on media changes. LibVLC resets the delay on each media
+     */
+    public synchronized void reset() {
+        this.measured = false;
+        this.latency = 0;
+        this.lastPts = 0;
+        this.lastHeard = 0;
+        this.delay = 0;
+    }
+
+    /**
+     * Forgets the reported chunks and reads the audio delay kept by the player, call it on seeks and flushes
+     * @param player media player instance
+     */
+    public void reset(libvlc_media_player_t player) {
+        long delay = LibVlc.libvlc_audio_get_delay(player);
+        synchronized (this) {
+            this.reset();
+            this.delay = delay;
+        }
+    }
+
+    /**
+     * @return smoothed time between the PTS of the chunks and the time they are heard, in microseconds
+     */
+    public synchronized long latency() {
+        return latency;
+    }
+
+    /**
+     * @return audio delay set by the last correction, in microseconds
+     */
+    public synchronized long delay() {
+        return delay;
+    }
+
+    /**
+     * @return media time heard right now, in {@link #now()} microseconds. The LibVLC clock before any chunk was reported
+     */
+    public long clock() {
+        long now = time();
+        synchronized (this) {
+            if (!measured) return now;
+            return lastPts - delay + Math.min(now - lastHeard, MAX_EXTRAPOLATION);
+        }
+    }
+
+    /**
+     * Reads the clock driving the controller, subclasses can drive it from another one
+     * @return current time, in {@link #now()} microseconds
+     */
+    protected long time() {
+        return now();
+    }
+
+    /**
+     * Decides what to do with a video frame
+     * @param frameClock clock the frame was displayed at by LibVLC, see the frame stamps of the video package
+     * @return decision, {@link SyncDecision#SHOW} if the frame is not stamped
+     */
+    public SyncDecision decide(long frameClock) {
+        if (frameClock < 0) {
+            shown.increment();
+            return SyncDecision.SHOW;
+        }
+        long offset = frameClock - clock();
+        if (offset < -threshold) {
+            dropped.increment();
+            return SyncDecision.DROP;
+        }
+        if (offset > threshold) {
+            repeated.increment();
+            return SyncDecision.REPEAT;
+        }
+        shown.increment();
+        return SyncDecision.SHOW;
+    }
+
+    /**
+     * Sets the LibVLC audio delay to the negative latency, delivering the audio as early as the output delays it.
+     * Call it periodically, it only changes the delay when the latency moved more than the tolerance.
+     * LibVLC resets the delay on each media
+     *
+     * @param player media player instance
+     * @return true if the delay was changed
+     */
+    public boolean correct(libvlc_media_player_t player) {
+        long target;
+        synchronized (this) {
+            if (!measured) return false;
+            target = -latency;
+        }
+        long current = LibVlc.libvlc_audio_get_delay(player);
+        synchronized (this) {
+            this.delay = current;
+        }
+        if (Math.abs(target - current) <= tolerance) return false;
+        if (LibVlc.libvlc_audio_set_delay(player, target) != 0) {
+            VideoLan4J.LOGGER.warn(IT, "Failed to set the audio delay to {}us", target);
+            return false;
+        }
+        synchronized (this) {
+            this.delay = target;
+        }
+        VideoLan4J.LOGGER.debug(IT, "Corrected the audio delay from {}us to {}us", current, target);
+        return true;
+    }
+
+    /**
+     * @return frames decided to be shown
+     */
+    public long shown() {
+        return shown.sum();
+    }
+
+    /**
+     * @return frames decided to be dropped
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return frames decided to be repeated
+     */
+    public long repeated() {
+        return repeated.sum();
+    }
+}
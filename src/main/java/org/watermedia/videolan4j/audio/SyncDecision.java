@@ -0,0 +1,19 @@
+package org.watermedia.videolan4j.audio;
+
+/**
+ * What to do with a video frame compared to the master clock of a {@link SyncController}
+ */
+public enum SyncDecision {
+    /**
+     * The frame is in sync, show it
+     */
+    SHOW,
+    /**
+     * The frame is too late, skip it and pick the next one
+     */
+    DROP,
+    /**
+     * The frame is too early, keep showing the previous one
+     */
+    REPEAT
+}
@@ -32,12 +32,13 @@ public interface libvlc_audio_setup_cb extends Callback {
      * Callback prototype to setup the audio playback.
      * <p>
      * This is called when the media player needs to create a new audio output.
+     * Any of the format, rate and channels can be changed, LibVLC converts the samples to them.
      *
-     * @param data pointer to the data pointer passed to libvlc_audio_set_callbacks()
-     * @param format 4 bytes sample format
-     * @param rate sample rate
-     * @param channels channels count
+     * @param data pointer to the data pointer passed to libvlc_audio_set_callbacks() [IN/OUT]
+     * @param format pointer to the 4 bytes sample format [IN/OUT]
+     * @param rate pointer to the sample rate [IN/OUT]
+     * @param channels pointer to the channels count [IN/OUT]
      * @return 0 on success, anything else to skip audio playback
      */
-    int setup(PointerByReference data, String format, IntByReference rate, IntByReference channels);
+    int setup(PointerByReference data, PointerByReference format, IntByReference rate, IntByReference channels);
 }
@@ -46,6 +46,13 @@ public class libvlc_media_track_t extends Structure {
     public Pointer psz_language;
     public Pointer psz_description;
 
+    public libvlc_media_track_t() {
+    }
+
+    public libvlc_media_track_t(Pointer pointer) {
+        super(pointer);
+    }
+
     @Override
     protected List<String> getFieldOrder() {
         return FIELD_ORDER;
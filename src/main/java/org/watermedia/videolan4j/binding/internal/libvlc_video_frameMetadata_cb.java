@@ -0,0 +1,41 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+
+/**
+ * Callback prototype to receive metadata before rendering.
+ */
+public interface libvlc_video_frameMetadata_cb extends Callback {
+
+    /**
+     * Callback prototype to receive metadata before rendering.
+     *
+     * @param opaque private pointer passed to the @a libvlc_video_set_output_callbacks() [IN]
+     * @param type type of data passed in metadata, see {@link libvlc_video_metadata_type_t} [IN]
+     * @param metadata the type of metadata, like libvlc_video_frame_hdr10_metadata_t [IN]
+     *
+     * @since LibVLC 4.0.0 or later
+     */
+    void frameMetadata(Pointer opaque, int type, Pointer metadata);
+
+}
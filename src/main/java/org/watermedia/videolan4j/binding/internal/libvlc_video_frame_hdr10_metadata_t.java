@@ -0,0 +1,58 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+/**
+ * HDR10 metadata of a frame, given to libvlc_video_frameMetadata_cb
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public class libvlc_video_frame_hdr10_metadata_t extends Structure {
+
+    private static final List<String> FIELD_ORDER = Arrays.asList("RedPrimary", "GreenPrimary", "BluePrimary", "WhitePoint", "MaxMasteringLuminance", "MinMasteringLuminance", "MaxContentLightLevel", "MaxFrameAverageLightLevel");
+
+    public short[] RedPrimary = new short[2];
+    public short[] GreenPrimary = new short[2];
+    public short[] BluePrimary = new short[2];
+    public short[] WhitePoint = new short[2];
+    public int MaxMasteringLuminance;
+    public int MinMasteringLuminance;
+    public short MaxContentLightLevel;
+    public short MaxFrameAverageLightLevel;
+
+    public libvlc_video_frame_hdr10_metadata_t() {
+    }
+
+    public libvlc_video_frame_hdr10_metadata_t(Pointer pointer) {
+        super(pointer);
+        read();
+    }
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return FIELD_ORDER;
+    }
+}
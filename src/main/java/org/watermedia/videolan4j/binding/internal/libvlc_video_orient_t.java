@@ -0,0 +1,63 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumeration of the video orientations
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public enum libvlc_video_orient_t {
+
+    libvlc_video_orient_top_left(0),
+    libvlc_video_orient_top_right(1),
+    libvlc_video_orient_bottom_left(2),
+    libvlc_video_orient_bottom_right(3),
+    libvlc_video_orient_left_top(4),
+    libvlc_video_orient_left_bottom(5),
+    libvlc_video_orient_right_top(6),
+    libvlc_video_orient_right_bottom(7);
+
+    private static final Map<Integer, libvlc_video_orient_t> INT_MAP = new HashMap<>();
+
+    static {
+        for(libvlc_video_orient_t value : libvlc_video_orient_t.values()) {
+            INT_MAP.put(value.intValue, value);
+        }
+    }
+
+    public static libvlc_video_orient_t value(int intValue) {
+        return INT_MAP.get(intValue);
+    }
+
+    private final int intValue;
+
+    libvlc_video_orient_t(int intValue) {
+        this.intValue = intValue;
+    }
+
+    public int intValue() {
+        return intValue;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.jna.Structure;
+
+/**
+ * Configuration of the rendering output, filled by libvlc_video_update_output_cb
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public class libvlc_video_output_cfg_t extends Structure {
+
+    private static final List<String> FIELD_ORDER = Arrays.asList("u", "full_range", "colorspace", "primaries", "transfer", "orientation");
+
+    public libvlc_video_output_cfg_u u;
+    public byte full_range; // C BOOL, FULL RANGE OR STUDIO/LIMITED RANGE
+    public int colorspace; // libvlc_video_color_space_t
+    public int primaries; // libvlc_video_color_primaries_t
+    public int transfer; // libvlc_video_transfer_func_t
+    public int orientation; // libvlc_video_orient_t
+
+    @Override
+    protected List<String> getFieldOrder() {
+        return FIELD_ORDER;
+    }
+}
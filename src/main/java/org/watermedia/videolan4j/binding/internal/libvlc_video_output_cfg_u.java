@@ -0,0 +1,37 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.Union;
+
+/**
+ * Rendering format of libvlc_video_output_cfg_t, by engine
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public class libvlc_video_output_cfg_u extends Union {
+
+    public int dxgi_format; // DXGI_FORMAT FOR D3D11
+    public int d3d9_format; // D3DFORMAT FOR D3D9
+    public int opengl_format; // GL_RGBA OR GL_RGB FOR OPENGL AND GLES2
+    public Pointer p_surface; // CURRENTLY UNUSED
+
+}
@@ -23,18 +23,17 @@ import com.sun.jna.Callback;
 import com.sun.jna.Pointer;
 
 /**
- *
+ * Callback prototype called to release user data of the output callbacks.
  */
-public interface libvlc_video_setup_cb extends Callback {
+public interface libvlc_video_output_cleanup_cb extends Callback {
 
     /**
-     * Callback prototype called to initialize user data.
+     * Callback prototype called to release user data
      *
-     * @param opaque private pointer passed to the @a libvlc_video_set_output_callbacks() [IN]
-     * @return true on success
+     * @param opaque private pointer set on the opaque parameter of @a libvlc_video_output_setup_cb() [IN]
      *
      * @since LibVLC 4.0.0 or later
      */
-    int setup(Pointer opaque);
+    void cleanup(Pointer opaque);
 
 }
@@ -0,0 +1,58 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumeration of the mouse buttons reported to libvlc_video_output_set_window_cb
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public enum libvlc_video_output_mouse_button_t {
+
+    libvlc_video_output_mouse_button_left(0),
+    libvlc_video_output_mouse_button_middle(1),
+    libvlc_video_output_mouse_button_right(2);
+
+    private static final Map<Integer, libvlc_video_output_mouse_button_t> INT_MAP = new HashMap<>();
+
+    static {
+        for(libvlc_video_output_mouse_button_t value : libvlc_video_output_mouse_button_t.values()) {
+            INT_MAP.put(value.intValue, value);
+        }
+    }
+
+    public static libvlc_video_output_mouse_button_t value(int intValue) {
+        return INT_MAP.get(intValue);
+    }
+
+    private final int intValue;
+
+    libvlc_video_output_mouse_button_t(int intValue) {
+        this.intValue = intValue;
+    }
+
+    public int intValue() {
+        return intValue;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+
+/**
+ * Callback given by LibVLC to report a mouse button release.
+ */
+public interface libvlc_video_output_mouse_release_cb extends Callback {
+
+    /**
+     * Callback type that can be called to notify when a mouse button is released in the rendering surface.
+     *
+     * @param report_opaque parameter passed to @a libvlc_video_output_set_window_cb() [IN]
+     * @param button the button that changed, see {@link libvlc_video_output_mouse_button_t} [IN]
+     *
+     * @since LibVLC 4.0.0 or later
+     */
+    void invoke(Pointer report_opaque, int button);
+
+}
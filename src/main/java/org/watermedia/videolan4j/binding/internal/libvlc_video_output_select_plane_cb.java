@@ -0,0 +1,43 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+import org.watermedia.videolan4j.binding.lib.types.size_t;
+
+/**
+ * Callback prototype to select the plane to render into, used by Direct3D11.
+ */
+public interface libvlc_video_output_select_plane_cb extends Callback {
+
+    /**
+     * Tell the host the rendering for the given plane is about to start
+     *
+     * @param opaque private pointer set on the opaque parameter of @a libvlc_video_output_setup_cb() [IN]
+     * @param plane number of the rendering plane to select [IN]
+     * @param output handle of the rendering output for the given plane [IN]
+     * @return true on success
+     *
+     * @since LibVLC 4.0.0 or later
+     */
+    int selectPlane(Pointer opaque, size_t plane, Pointer output);
+
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+
+/**
+ * Callback prototype giving the functions to report the size and the mouse events of the window.
+ */
+public interface libvlc_video_output_set_window_cb extends Callback {
+
+    /**
+     * Set the callback to call when the host app resizes the rendering area.
+     * <p>
+     * This allows text rendering and aspect ratio to be handled properly when the host
+     * rendering size changes and to provide mouse.
+     * <p>
+     * It may be called before the @a libvlc_video_output_setup_cb callback.
+     *
+     * @param opaque private pointer set on the opaque parameter of @a libvlc_video_output_setup_cb() [IN]
+     * @param report_size_change callback which must be called when the host size changes.
+     *        The callback is valid until another call to set_window_cb is done.
+     *        This may be called from any thread. [IN]
+     * @param report_mouse_move callback which must be called when the mouse position change on the video surface.
+     *        The coordinates are relative to the size reported through the report_size_change.
+     *        This may be called from any thread. [IN]
+     * @param report_mouse_pressed callback which must be called when a mouse button is pressed on the video surface,
+     *        The position of the last report_mouse_move callback is used.
+     *        This may be called from any thread. [IN]
+     * @param report_mouse_released callback which must be called when a mouse button is released on the video surface,
+     *        The position of the last report_mouse_move callback is used.
+     *        This may be called from any thread. [IN]
+     * @param report_opaque private pointer to pass to the report callbacks [IN]
+     *
+     * @since LibVLC 4.0.0 or later
+     */
+    void setWindow(Pointer opaque, libvlc_video_output_resize_cb report_size_change, libvlc_video_output_mouse_move_cb report_mouse_move, libvlc_video_output_mouse_press_cb report_mouse_pressed, libvlc_video_output_mouse_release_cb report_mouse_released, Pointer report_opaque);
+
+}
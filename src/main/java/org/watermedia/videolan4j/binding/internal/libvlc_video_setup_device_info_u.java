@@ -0,0 +1,34 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.internal;
+
+import com.sun.jna.Union;
+
+/**
+ * Device of libvlc_video_setup_device_info_t, by engine
+ *
+ * @since LibVLC 4.0.0 or later
+ */
+public class libvlc_video_setup_device_info_u extends Union {
+
+    public libvlc_video_setup_device_d3d11_t d3d11;
+    public libvlc_video_setup_device_d3d9_t d3d9;
+
+}
@@ -23,19 +23,21 @@ import com.sun.jna.Callback;
 import com.sun.jna.Pointer;
 
 /**
- *
+ * Callback prototype called on video size changes.
  */
 public interface libvlc_video_update_output_cb extends Callback {
 
     /**
-     * Callback prototype called on video size changes
+     * Callback prototype called on video size changes.
+     * Update the rendering output setup.
      *
-     * @param opaque private pointer passed to the @a libvlc_video_set_output_callbacks() [IN]
-     * @param width video width in pixel [IN]
-     * @param height video height in pixel [IN]
+     * @param opaque private pointer set on the opaque parameter of @a libvlc_video_output_setup_cb() [IN]
+     * @param cfg configuration of the video that will be rendered [IN]
+     * @param output configuration describing with how the rendering is setup [OUT]
+     * @return true on success
      *
      * @since LibVLC 4.0.0 or later
      */
-    void updateOutput(Pointer opaque, int width, int height);
+    int updateOutput(Pointer opaque, libvlc_video_render_cfg_t cfg, libvlc_video_output_cfg_t output);
 
 }
@@ -74,6 +74,25 @@ public interface LibC extends Library {
      */
     int munlock(Pointer addr, NativeLong length);
 
+    /**
+     * Advice value for {@link #madvise(Pointer, NativeLong, int)} to enable transparent huge pages in the range.
+     * <p>
+     * <em>Only available on Linux.</em>
+     */
+    int MADV_HUGEPAGE = 14;
+
+    /**
+     * Give advice about use of memory.
+     * <p>
+     * <em>Only available on Linux.</em>
+     *
+     * @param addr page aligned address pointer
+     * @param length length
+     * @param advice advice value, like {@link #MADV_HUGEPAGE}
+     * @return 0 if successful; -1 if not, setting <code>errno</code> to an error code
+     */
+    int madvise(Pointer addr, NativeLong length, int advice);
+
     /**
      * Change or add an evironment variable.
      * <p>
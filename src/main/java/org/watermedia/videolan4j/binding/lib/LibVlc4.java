@@ -0,0 +1,77 @@
+/*
+ * This file is part of VLCJ.
+ *
+ * VLCJ is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * VLCJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with VLCJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright 2009-2019 Caprica Software Limited.
+ */
+
+package org.watermedia.videolan4j.binding.lib;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_frameMetadata_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_getProcAddress_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_makeCurrent_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_cleanup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_select_plane_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_set_window_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_setup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_swap_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_update_output_cb;
+
+/**
+ * JNA interface to the functions only present on LibVLC 4.0.0 or later.
+ * <p>
+ * Kept apart from {@link LibVlc} because direct mapping fails to register when any function is missing, this class
+ * MUST NOT be touched before checking the LibVLC version, see {@link VideoLan4J#getVideoLanVersion()}
+ */
+public final class LibVlc4 {
+
+    static {
+        Native.register(VideoLan4J.LIBVLC_NAME);
+    }
+
+    private LibVlc4() {
+    }
+
+    /**
+     * Set callbacks and data to render decoded video to a custom texture
+     * <p>
+     * VLC will use the given engine to render the video on a context owned by the application,
+     * instead of locking and copying each frame into memory.
+     * <p>
+     * Callbacks not used by the engine can be null, like makeCurrent_cb and getProcAddress_cb on Direct3D or
+     * select_plane_cb on everything but Direct3D11.
+     *
+     * @param mp the media player
+     * @param engine the GPU engine to use, see {@link org.watermedia.videolan4j.binding.internal.libvlc_video_engine_t}
+     * @param setup_cb callback called to initialize user data
+     * @param cleanup_cb callback called to clean up user data
+     * @param window_cb callback called to setup the window
+     * @param update_output_cb callback to get the rendering format of the host (cannot be NULL)
+     * @param swap_cb callback called after rendering a video frame (cannot be NULL)
+     * @param makeCurrent_cb callback called to enter/leave the rendering context (cannot be NULL)
+     * @param getProcAddress_cb opengl function loading callback (cannot be NULL for OpenGL)
+     * @param metadata_cb callback to provide frame metadata (D3D11 only)
+     * @param select_plane_cb callback to select different D3D11 rendering targets
+     * @param opaque private pointer passed to callbacks
+     * @return C bool, true if the engine is supported and the callbacks were set
+     *
+     * @since LibVLC 4.0.0 or later
+     */
+    public static native byte libvlc_video_set_output_callbacks(libvlc_media_player_t mp, int engine, libvlc_video_output_setup_cb setup_cb, libvlc_video_output_cleanup_cb cleanup_cb, libvlc_video_output_set_window_cb window_cb, libvlc_video_update_output_cb update_output_cb, libvlc_video_swap_cb swap_cb, libvlc_video_makeCurrent_cb makeCurrent_cb, libvlc_video_getProcAddress_cb getProcAddress_cb, libvlc_video_frameMetadata_cb metadata_cb, libvlc_video_output_select_plane_cb select_plane_cb, Pointer opaque);
+}
@@ -0,0 +1,231 @@
+package org.watermedia.videolan4j.video;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts YUV frames to RGBA or BGRA in Java, for LibVLC builds without a chroma converter (swscale).
+ * <p>Reads I420, J420, YV12, NV12, NV21, YUY2, YVYU and UYVY frames and writes RGBA, BGRA or RV32 frames.
+ * Coefficients come from lookup tables of the {@link ColorSpace} and rows are converted in parallel bands
+ * on a {@link ForkJoinPool}. Bands are reused, converting does not allocate</p>
+ * <p>Select it on the format negotiation with {@link FormatNegotiator#setConverter(ChromaConverter)}</p>
+ */
+public class ChromaConverter {
+    private static final int MIN_BAND_ROWS = 32;
+    private static final int PLANAR = 0, SEMI_PLANAR = 1, PACKED = 2;
+
+    private final ColorSpace space;
+    private final ForkJoinPool pool;
+    private final Band[] bands;
+    private final RecursiveAction root = new RecursiveAction() {
+        @Override
+        protected void compute() {
+            invokeAll(bands);
+        }
+    };
+
+    // CURRENT CONVERSION
+    private FrameBuffer src;
+    private FrameBuffer dst;
+    private int kind, uIndex, vIndex, yIndex;
+    private int rShift, gShift, bShift, alpha;
+    private int bandCount;
+
+    /**
+     * Creates a converter running on the common pool
+     * @param space conversion matrix and range
+     */
+    public ChromaConverter(ColorSpace space) {
+        this(space, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a converter
+     * @param space conversion matrix and range
+     * @param pool pool running the row bands
+     */
+    public ChromaConverter(ColorSpace space, ForkJoinPool pool) {
+        this.space = space;
+        this.pool = pool;
+        this.bands = new Band[Math.max(1, pool.getParallelism())];
+        for (int i = 0; i < bands.length; i++) {
+            bands[i] = new Band(i);
+        }
+    }
+
+    /**
+     * @param chroma 4 characters chroma code
+     * @return true if frames of the chroma can be converted
+     */
+    public static boolean canConvert(String chroma) {
+        switch (chroma) {
+            case "I420": case "J420": case "YV12": case "NV12": case "NV21": case "YUY2": case "YVYU": case "UYVY":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public ColorSpace space() {
+        return space;
+    }
+
+    /**
+     * Converts a frame, blocks until all the rows are done
+     * @param src YUV frame
+     * @param dst RGBA, BGRA or RV32 frame of the same size
+     * @throws IllegalArgumentException if the chromas or the sizes do not match
+     */
+    public synchronized void convert(FrameBuffer src, FrameBuffer dst) {
+        FrameLayout in = src.layout(), out = dst.layout();
+        if (in.width() != out.width() || in.height() != out.height())
+            throw new IllegalArgumentException("Frame sizes do not match: " + in + " to " + out);
+        this.setup(in.chroma(), out.chroma(), dst.plane(0).order());
+        this.src = src;
+        this.dst = dst;
+
+        int height = in.height();
+        this.bandCount = Math.max(1, Math.min(bands.length, height / MIN_BAND_ROWS));
+        try {
+            if (bandCount == 1) {
+                this.rows(0, height);
+                return;
+            }
+            root.reinitialize();
+            for (Band band: bands) {
+                band.reinitialize();
+            }
+            pool.invoke(root);
+        } finally {
+            this.src = null;
+            this.dst = null;
+        }
+    }
+
+    private void setup(String input, String output, ByteOrder order) {
+        // BYTE POSITION OF EACH COMPONENT
+        int r, g, b;
+        switch (output) {
+            case "RGBA": r = 0; g = 1; b = 2; break;
+            case "BGRA": case "RV32": r = 2; g = 1; b = 0; break;
+            default: throw new IllegalArgumentException("Unsupported output chroma '" + output + "'");
+        }
+        boolean little = order == ByteOrder.LITTLE_ENDIAN;
+        this.rShift = little ? r * 8 : (3 - r) * 8;
+        this.gShift = little ? g * 8 : (3 - g) * 8;
+        this.bShift = little ? b * 8 : (3 - b) * 8;
+        this.alpha = 0xFF << (little ? 24 : 0);
+
+        switch (input) {
+            case "I420": case "J420": kind = PLANAR; uIndex = 1; vIndex = 2; break;
+            case "YV12": kind = PLANAR; uIndex = 2; vIndex = 1; break;
+            case "NV12": kind = SEMI_PLANAR; uIndex = 0; vIndex = 1; break;
+            case "NV21": kind = SEMI_PLANAR; uIndex = 1; vIndex = 0; break;
+            case "YUY2": kind = PACKED; yIndex = 0; uIndex = 1; vIndex = 3; break;
+            case "YVYU": kind = PACKED; yIndex = 0; uIndex = 3; vIndex = 1; break;
+            case "UYVY": kind = PACKED; yIndex = 1; uIndex = 0; vIndex = 2; break;
+            default: throw new IllegalArgumentException("Unsupported input chroma '" + input + "'");
+        }
+    }
+
+    private void rows(int from, int to) {
+        switch (kind) {
+            case PLANAR: planar(from, to); break;
+            case SEMI_PLANAR: semiPlanar(from, to); break;
+            default: packed(from, to); break;
+        }
+    }
+
+    private void planar(int from, int to) {
+        FrameLayout layout = src.layout();
+        ByteBuffer yPlane = src.plane(0), uPlane = src.plane(uIndex), vPlane = src.plane(vIndex), out = dst.plane(0);
+        int yPitch = layout.pitch(0), uPitch = layout.pitch(uIndex), vPitch = layout.pitch(vIndex), outPitch = dst.layout().pitch(0);
+        int width = layout.width(), pairs = width & ~1;
+        int[] lut = space.y, rv = space.rv, gu = space.gu, gv = space.gv, bu = space.bu;
+        int rs = rShift, gs = gShift, bs = bShift, a = alpha;
+
+        for (int row = from; row < to; row++) {
+            int y = row * yPitch, u = (row >> 1) * uPitch, v = (row >> 1) * vPitch, o = row * outPitch;
+            for (int x = 0; x < pairs; x += 2, o += 8) {
+                int cu = uPlane.get(u + (x >> 1)) & 0xFF, cv = vPlane.get(v + (x >> 1)) & 0xFF;
+                int r = rv[cv], g = gu[cu] + gv[cv], b = bu[cu];
+                out.putInt(o, ColorSpace.rgb(lut[yPlane.get(y + x) & 0xFF], r, g, b, rs, gs, bs) | a);
+                out.putInt(o + 4, ColorSpace.rgb(lut[yPlane.get(y + x + 1) & 0xFF], r, g, b, rs, gs, bs) | a);
+            }
+            if (pairs != width) {
+                int cu = uPlane.get(u + (pairs >> 1)) & 0xFF, cv = vPlane.get(v + (pairs >> 1)) & 0xFF;
+                int r = rv[cv], g = gu[cu] + gv[cv], b = bu[cu];
+                out.putInt(o, ColorSpace.rgb(lut[yPlane.get(y + pairs) & 0xFF], r, g, b, rs, gs, bs) | a);
+            }
+        }
+    }
+
+    private void semiPlanar(int from, int to) {
+        FrameLayout layout = src.layout();
+        ByteBuffer yPlane = src.plane(0), cPlane = src.plane(1), out = dst.plane(0);
+        int yPitch = layout.pitch(0), cPitch = layout.pitch(1), outPitch = dst.layout().pitch(0);
+        int width = layout.width(), pairs = width & ~1;
+        int ui = uIndex, vi = vIndex;
+        int[] lut = space.y, rv = space.rv, gu = space.gu, gv = space.gv, bu = space.bu;
+        int rs = rShift, gs = gShift, bs = bShift, a = alpha;
+
+        for (int row = from; row < to; row++) {
+            int y = row * yPitch, c = (row >> 1) * cPitch, o = row * outPitch;
+            for (int x = 0; x < pairs; x += 2, o += 8) {
+                int cu = cPlane.get(c + x + ui) & 0xFF, cv = cPlane.get(c + x + vi) & 0xFF;
+                int r = rv[cv], g = gu[cu] + gv[cv], b = bu[cu];
+                out.putInt(o, ColorSpace.rgb(lut[yPlane.get(y + x) & 0xFF], r, g, b, rs, gs, bs) | a);
+                out.putInt(o + 4, ColorSpace.rgb(lut[yPlane.get(y + x + 1) & 0xFF], r, g, b, rs, gs, bs) | a);
+            }
+            if (pairs != width) {
+                int cu = cPlane.get(c + pairs + ui) & 0xFF, cv = cPlane.get(c + pairs + vi) & 0xFF;
+                int r = rv[cv], g = gu[cu] + gv[cv], b = bu[cu];
+                out.putInt(o, ColorSpace.rgb(lut[yPlane.get(y + pairs) & 0xFF], r, g, b, rs, gs, bs) | a);
+            }
+        }
+    }
+
+    private void packed(int from, int to) {
+        FrameLayout layout = src.layout();
+        ByteBuffer in = src.plane(0), out = dst.plane(0);
+        int inPitch = layout.pitch(0), outPitch = dst.layout().pitch(0);
+        int width = layout.width();
+        int yi = yIndex, ui = uIndex, vi = vIndex;
+        int[] lut = space.y, rv = space.rv, gu = space.gu, gv = space.gv, bu = space.bu;
+        int rs = rShift, gs = gShift, bs = bShift, a = alpha;
+
+        for (int row = from; row < to; row++) {
+            int i = row * inPitch, o = row * outPitch;
+            // 4 BYTES HOLD 2 PIXELS
+            for (int x = 0; x < width; x += 2, i += 4, o += 8) {
+                int cu = in.get(i + ui) & 0xFF, cv = in.get(i + vi) & 0xFF;
+                int r = rv[cv], g = gu[cu] + gv[cv], b = bu[cu];
+                out.putInt(o, ColorSpace.rgb(lut[in.get(i + yi) & 0xFF], r, g, b, rs, gs, bs) | a);
+                if (x + 1 < width) out.putInt(o + 4, ColorSpace.rgb(lut[in.get(i + yi + 2) & 0xFF], r, g, b, rs, gs, bs) | a);
+            }
+        }
+    }
+
+    private final class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        private Band(int index) {
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            // EVEN ROW BOUNDS, SUBSAMPLED CHROMA ROWS ARE SHARED BY 2 ROWS
+            int count = bandCount;
+            if (index >= count) return;
+            int height = src.layout().height();
+            int from = (int) ((long) height * index / count) & ~1;
+            int to = index == count - 1 ? height : (int) ((long) height * (index + 1) / count) & ~1;
+            rows(from, to);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * YUV to RGB conversion matrix and range used by {@link ChromaConverter}
+ */
+public enum ColorSpace {
+    /**
+     * SD video, luma on 16-235 and chroma on 16-240
+     */
+    BT601_LIMITED(0.299, 0.114, false),
+    /**
+     * SD video and JPEG, full 0-255 range
+     */
+    BT601_FULL(0.299, 0.114, true),
+    /**
+     * HD video, luma on 16-235 and chroma on 16-240
+     */
+    BT709_LIMITED(0.2126, 0.0722, false),
+    /**
+     * HD video, full 0-255 range
+     */
+    BT709_FULL(0.2126, 0.0722, true);
+
+    private static final int SHIFT = 16;
+
+    // FIXED POINT TERMS OF EACH COMPONENT VALUE
+    final int[] y = new int[256];
+    final int[] rv = new int[256];
+    final int[] gu = new int[256];
+    final int[] gv = new int[256];
+    final int[] bu = new int[256];
+
+    ColorSpace(double kr, double kb, boolean full) {
+        double kg = 1 - kr - kb;
+        double yScale = full ? 1 : 255.0 / 219;
+        double cScale = full ? 1 : 255.0 / 224;
+        int yOffset = full ? 0 : 16;
+        for (int i = 0; i < 256; i++) {
+            double c = (i - 128) * cScale;
+            y[i] = (int) Math.round((i - yOffset) * yScale * (1 << SHIFT)) + (1 << (SHIFT - 1));
+            rv[i] = (int) Math.round(2 * (1 - kr) * c * (1 << SHIFT));
+            gu[i] = (int) Math.round(-2 * kb * (1 - kb) / kg * c * (1 << SHIFT));
+            gv[i] = (int) Math.round(-2 * kr * (1 - kr) / kg * c * (1 << SHIFT));
+            bu[i] = (int) Math.round(2 * (1 - kb) * c * (1 << SHIFT));
+        }
+    }
+
+    /**
+     * Converts a pixel to RGB, chroma terms are shared by the pixels of a subsampled pair
+     * @param y luma term, from {@link #y}
+     * @param r red chroma term, from {@link #rv}
+     * @param g green chroma terms, from {@link #gu} plus {@link #gv}
+     * @param b blue chroma term, from {@link #bu}
+     * @param rShift red bit position
+     * @param gShift green bit position
+     * @param bShift blue bit position
+     * @return packed RGB, alpha not included
+     */
+    static int rgb(int y, int r, int g, int b, int rShift, int gShift, int bShift) {
+        return (Math.max(0, Math.min(255, (y + r) >> SHIFT)) << rShift)
+                | (Math.max(0, Math.min(255, (y + g) >> SHIFT)) << gShift)
+                | (Math.max(0, Math.min(255, (y + b) >> SHIFT)) << bShift);
+    }
+}
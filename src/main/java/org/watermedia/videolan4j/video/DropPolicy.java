@@ -0,0 +1,15 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * What a {@link FrameSubscriber} does with a new frame when its queue is full
+ */
+public enum DropPolicy {
+    /**
+     * Drops the oldest queued frame, the subscriber always gets the newest ones
+     */
+    DROP_OLDEST,
+    /**
+     * Drops the new frame, the subscriber keeps the queued ones
+     */
+    DROP_NEWEST
+}
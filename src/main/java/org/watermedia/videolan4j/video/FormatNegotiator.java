@@ -0,0 +1,191 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_track_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_cleanup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_format_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_track_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drives the video format callbacks of a {@link FrameOutput}, like {@link FrameExchanger} or {@link FrameFanout}.
+ * <p>Each time LibVLC negotiates the format (new media, resolution changes on adaptive streams) the chosen
+ * chroma, pitches and lines are recorded as a {@link FrameLayout} and the output frames are reused when the
+ * new layout fits on them, reallocating only when it grows</p>
+ * <p>The frame size can be reduced with a {@link ScalePolicy}, LibVLC rescales the frames while converting the chroma</p>
+ * <p>With a {@link ChromaConverter} the source chroma is kept when the converter can read it, so the conversion
+ * happens in Java instead of LibVLC</p>
+ */
+public class FormatNegotiator {
+    private static final Marker IT = MarkerManager.getMarker("FormatNegotiator");
+    private static final int TRACK_VIDEO = 1;
+
+    private final String chroma;
+    private final FrameOutput output;
+    private final libvlc_video_format_cb formatCallback = this::format;
+    private final libvlc_video_cleanup_cb cleanupCallback = this::cleanup;
+    private volatile ScalePolicy scalePolicy = ScalePolicy.SOURCE;
+    private volatile ChromaConverter converter;
+    private libvlc_media_player_t player;
+
+    /**
+     * Creates a negotiator with a triple buffered exchanger
+     * @param chroma chroma requested to LibVLC, see {@link FrameLayout#of(String, int, int, int, int)}
+     */
+    public FormatNegotiator(String chroma) {
+        this(chroma, new FrameExchanger(3));
+    }
+
+    /**
+     * Creates a negotiator
+     * @param chroma chroma requested to LibVLC, see {@link FrameLayout#of(String, int, int, int, int)}
+     * @param output frame output receiving the negotiated layouts
+     */
+    public FormatNegotiator(String chroma, FrameOutput output) {
+        FrameLayout.of(chroma, 1, 1); // THROWS ON UNSUPPORTED CHROMAS
+        this.chroma = chroma;
+        this.output = output;
+    }
+
+    /**
+     * Sets the video and format callbacks of the media player
+     * @param player media player instance
+     */
+    public void attach(libvlc_media_player_t player) {
+        this.player = player;
+        output.attach(player);
+        LibVlc.libvlc_video_set_format_callbacks(player, formatCallback, cleanupCallback);
+    }
+
+    public libvlc_video_format_cb formatCallback() {
+        return formatCallback;
+    }
+
+    public libvlc_video_cleanup_cb cleanupCallback() {
+        return cleanupCallback;
+    }
+
+    public FrameOutput output() {
+        return output;
+    }
+
+    /**
+     * Sets the policy picking the frame size, applied on the next format negotiation
+     * @param scalePolicy scale policy, {@link ScalePolicy#SOURCE} by default
+     */
+    public void setScalePolicy(ScalePolicy scalePolicy) {
+        if (scalePolicy == null) throw new IllegalArgumentException("Scale policy cannot be null");
+        this.scalePolicy = scalePolicy;
+    }
+
+    /**
+     * Sets the converter used by the frames consumer, the negotiation keeps the source chroma when
+     * the converter can read it and falls back to the requested chroma otherwise
+     * @param converter chroma converter, null to always request the chroma given on the constructor
+     */
+    public void setConverter(ChromaConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * @return chroma converter, null if there is none
+     */
+    public ChromaConverter converter() {
+        return converter;
+    }
+
+    /**
+     * @return last negotiated layout, null if there is none yet
+     */
+    public FrameLayout layout() {
+        return output.layout();
+    }
+
+    /**
+     * Computes the layout of the frames for the source format given by LibVLC
+     * @param source source chroma
+     * @param width source pixel width
+     * @param height source pixel height
+     * @return frame layout
+     */
+    protected FrameLayout negotiate(String source, int width, int height) {
+        String chroma = converter != null && ChromaConverter.canConvert(source) ? source : this.chroma;
+        ScalePolicy scalePolicy = this.scalePolicy;
+        if (scalePolicy == ScalePolicy.SOURCE) return FrameLayout.of(chroma, width, height);
+
+        int[] sar = sampleAspectRatio(width, height);
+        int[] size = scalePolicy.scale(width, height, sar[0], sar[1]);
+        return FrameLayout.of(chroma, size[0], size[1]);
+    }
+
+    /**
+     * Looks for the sample aspect ratio of the playing video track
+     * @param width source pixel width, used to pick the track when the media has many
+     * @param height source pixel height
+     * @return sample aspect ratio numerator and denominator, 1:1 when unknown
+     */
+    protected int[] sampleAspectRatio(int width, int height) {
+        int[] result = { 1, 1 };
+        if (player == null) return result;
+        libvlc_media_t media = LibVlc.libvlc_media_player_get_media(player);
+        if (media == null) return result;
+
+        PointerByReference tracks = new PointerByReference();
+        int count = LibVlc.libvlc_media_tracks_get(media, tracks);
+        try {
+            if (count == 0) return result;
+            for (Pointer pointer: tracks.getValue().getPointerArray(0, count)) {
+                libvlc_media_track_t track = new libvlc_media_track_t(pointer);
+                track.read();
+                if (track.i_type != TRACK_VIDEO) continue;
+
+                track.u.setType(libvlc_video_track_t.class);
+                track.u.read();
+                libvlc_video_track_t video = track.u.video;
+                if (video.i_sar_num <= 0 || video.i_sar_den <= 0) continue;
+                result[0] = video.i_sar_num;
+                result[1] = video.i_sar_den;
+                if (video.i_width == width && video.i_height == height) break;
+            }
+        } finally {
+            if (count != 0) LibVlc.libvlc_media_tracks_release(tracks.getValue(), count);
+            LibVlc.libvlc_media_release(media);
+        }
+        return result;
+    }
+
+    protected int format(PointerByReference opaque, PointerByReference chroma, IntByReference width, IntByReference height, PointerByReference pitches, PointerByReference lines) {
+        VideoLan4J.checkClassLoader(FormatNegotiator.class.getClassLoader());
+        FrameLayout previous = output.layout();
+        FrameLayout layout;
+        try {
+            String source = new String(chroma.getPointer().getByteArray(0, 4), StandardCharsets.US_ASCII);
+            layout = negotiate(source, width.getValue(), height.getValue());
+        } catch (IllegalArgumentException e) {
+            VideoLan4J.LOGGER.error(IT, "Failed to negotiate the video format", e);
+            return 0;
+        }
+
+        if (!output.reformat(layout)) {
+            VideoLan4J.LOGGER.error(IT, "Failed to allocate the frames of {}", layout);
+            return 0;
+        }
+        layout.apply(chroma, width, height, pitches, lines);
+        VideoLan4J.LOGGER.debug(IT, "Negotiated {} (previously {})", layout, previous);
+        return output.slots();
+    }
+
+    protected void cleanup(Pointer opaque) {
+        VideoLan4J.checkClassLoader(FormatNegotiator.class.getClassLoader());
+        output.cleanup();
+    }
+}
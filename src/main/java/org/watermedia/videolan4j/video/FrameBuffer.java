@@ -0,0 +1,214 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.watermedia.videolan4j.ByteBufferFactory;
+import org.watermedia.videolan4j.NativeBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Video frame buffer, all the planes of a {@link FrameLayout} allocated on a single aligned slab
+ * using {@link ByteBufferFactory}
+ */
+public class FrameBuffer {
+    private final ByteBuffer slab;
+    private FrameLayout layout;
+    private NativeBuffer[] planes;
+    private boolean released;
+
+    // PRESENTATION STAMPS, WRITTEN BY THE EXCHANGER ON DISPLAY
+    private long sequence;
+    private long clock = -1;
+    private long time = -1;
+    private long hash;
+    private boolean changed;
+
+    // SUBSCRIBERS HOLDING THE FRAME, USED BY THE FANOUT
+    final AtomicInteger refs = new AtomicInteger();
+    volatile boolean retired;
+
+    // CALLBACK TIMES, WRITTEN WHEN VIDEO METRICS ARE ENABLED
+    long lockNanos;
+    long unlockNanos;
+    long displayNanos;
+
+    private FrameBuffer(FrameLayout layout, ByteBuffer slab) {
+        this.slab = slab;
+        this.slice(layout);
+    }
+
+    /**
+     * Allocates the slab of the given layout
+     * @param layout frame layout
+     * @return frame buffer
+     */
+    public static FrameBuffer alloc(FrameLayout layout) {
+        return new FrameBuffer(layout, ByteBufferFactory.alloc(layout.size(), layout.planeAlignment()));
+    }
+
+    /**
+     * Allocates the slab of the given layout without throwing when there is no memory left
+     * @see ByteBufferFactory#tryAlloc(int, int)
+     *
+     * @param layout frame layout
+     * @return frame buffer, or null if the allocation was rejected. The format callback should return 0 then
+     */
+    public static FrameBuffer tryAlloc(FrameLayout layout) {
+        ByteBuffer slab = ByteBufferFactory.tryAlloc(layout.size(), layout.planeAlignment());
+        return slab != null ? new FrameBuffer(layout, slab) : null;
+    }
+
+    /**
+     * Reshapes the frame to the given layout, replacing it by a new frame when it does not fit
+     * @param frame frame to reuse, can be null
+     * @param layout new layout
+     * @return reshaped or new frame, null if the allocation was rejected
+     */
+    static FrameBuffer reuse(FrameBuffer frame, FrameLayout layout) {
+        if (frame != null) {
+            if (frame.reshape(layout)) return frame;
+            frame.release();
+        }
+        return tryAlloc(layout);
+    }
+
+    /**
+     * Writes the native address of each plane into the planes table of the lock callback.
+     * Does not allocate any object
+     * @see org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t
+     *
+     * @param planes planes table, allocated by LibVLC
+     */
+    public void lock(PointerByReference planes) {
+        NativeBuffer.write(planes, this.planes);
+    }
+
+    /**
+     * Reuses the slab for another layout, only possible when the new layout fits on it.
+     * Plane slices handed out before MUST NOT be used after that
+     *
+     * @param layout new frame layout
+     * @return true if the slab was reused, false if a bigger slab is required
+     */
+    public synchronized boolean reshape(FrameLayout layout) {
+        if (released || layout.size() > slab.capacity()) return false;
+        if (!ByteBufferFactory.isAligned(ByteBufferFactory.address(slab), layout.planeAlignment())) return false;
+        this.slice(layout);
+        return true;
+    }
+
+    public FrameLayout layout() {
+        return layout;
+    }
+
+    /**
+     * @return display order of the frame, starting on 1. 0 if it was never displayed
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return {@link org.watermedia.videolan4j.binding.lib.LibVlc#libvlc_clock()} when the frame was displayed, in microseconds.
+     *         -1 if the exchanger is not stamping frames
+     */
+    public long clock() {
+        return clock;
+    }
+
+    /**
+     * @return player time of the frame, in milliseconds. Estimated by a {@link FrameScheduler} with a player
+     *         once it returns the frame, -1 if unknown
+     */
+    public long time() {
+        return time;
+    }
+
+    /**
+     * @return hash of the frame computed on display, 0 if there is no {@link FrameChangeDetector}
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Tells if the frame is different from the previous one acquired from the exchanger, the upload can be skipped
+     * when it is not. Without a {@link FrameChangeDetector} all new frames are changed
+     *
+     * @return true if the content changed
+     */
+    public boolean changed() {
+        return changed;
+    }
+
+    void hash(long hash) {
+        this.hash = hash;
+    }
+
+    void time(long time) {
+        this.time = time;
+    }
+
+    void changed(boolean changed) {
+        this.changed = changed;
+    }
+
+    void stamp(long sequence, long clock, long time) {
+        this.sequence = sequence;
+        this.clock = clock;
+        this.time = time;
+    }
+
+    /**
+     * @return the whole slab, all planes included
+     */
+    public ByteBuffer buffer() {
+        return slab;
+    }
+
+    /**
+     * @param plane plane index
+     * @return plane slice of the slab, shared across calls
+     */
+    public ByteBuffer plane(int plane) {
+        return planes[plane].buffer();
+    }
+
+    /**
+     * @param plane plane index
+     * @return native address of the plane
+     */
+    public long address(int plane) {
+        return planes[plane].address();
+    }
+
+    /**
+     * @param plane plane index
+     * @return cached pointer to the plane, the same instance on every call
+     */
+    public Pointer pointer(int plane) {
+        return planes[plane].pointer();
+    }
+
+    /**
+     * Releases the slab, the frame MUST NOT be used after that. Releasing twice does nothing
+     */
+    public synchronized void release() {
+        if (released) return;
+        released = true;
+        ByteBufferFactory.dealloc(slab);
+    }
+
+    private void slice(FrameLayout layout) {
+        NativeBuffer[] planes = new NativeBuffer[layout.planes()];
+        for (int i = 0; i < planes.length; i++) {
+            ByteBuffer plane = (ByteBuffer) slab.duplicate().position(layout.offset(i)).limit(layout.offset(i) + layout.planeSize(i));
+            planes[i] = NativeBuffer.wrap(plane.slice().order(ByteOrder.nativeOrder()));
+        }
+        this.layout = layout;
+        this.planes = planes;
+    }
+}
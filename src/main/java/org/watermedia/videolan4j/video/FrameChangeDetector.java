@@ -0,0 +1,71 @@
+package org.watermedia.videolan4j.video;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hashes the frames on display so the reader can skip uploading frames equal to the previous one,
+ * see {@link FrameBuffer#changed()}.
+ * <p>Only one of every N scanlines is hashed, reading 8 bytes at once over four independent lanes, which costs
+ * a small fraction of copying the frame. Changes only on skipped scanlines are not detected, use a row step of
+ * 1 to hash the whole frame</p>
+ */
+public class FrameChangeDetector {
+    private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+    private final int rowStep;
+
+    /**
+     * Creates a detector hashing one of every 4 scanlines
+     */
+    public FrameChangeDetector() {
+        this(4);
+    }
+
+    /**
+     * Creates a detector
+     * @param rowStep hash one of every given scanlines
+     */
+    public FrameChangeDetector(int rowStep) {
+        if (rowStep <= 0) throw new IllegalArgumentException("Row step must be positive, got " + rowStep);
+        this.rowStep = rowStep;
+    }
+
+    /**
+     * Hashes the visible scanlines of all the planes
+     * @param frame frame to hash
+     * @return frame hash, never 0
+     */
+    public long hash(FrameBuffer frame) {
+        FrameLayout layout = frame.layout();
+        long h0 = PRIME, h1 = PRIME + 1, h2 = PRIME + 2, h3 = PRIME + 3;
+
+        for (int plane = 0; plane < layout.planes(); plane++) {
+            ByteBuffer buffer = frame.plane(plane);
+            int pitch = layout.pitch(plane);
+            int rows = layout.rows(plane);
+            int blocks = pitch & ~31;
+            int words = pitch & ~7;
+
+            for (int row = 0; row < rows; row += rowStep) {
+                int start = row * pitch;
+                int i = 0;
+                // FOUR LANES, NO DEPENDENCY BETWEEN THEM
+                for (; i < blocks; i += 32) {
+                    h0 = (h0 ^ buffer.getLong(start + i)) * PRIME;
+                    h1 = (h1 ^ buffer.getLong(start + i + 8)) * PRIME;
+                    h2 = (h2 ^ buffer.getLong(start + i + 16)) * PRIME;
+                    h3 = (h3 ^ buffer.getLong(start + i + 24)) * PRIME;
+                }
+                for (; i < words; i += 8) {
+                    h0 = (h0 ^ buffer.getLong(start + i)) * PRIME;
+                }
+                for (; i < pitch; i++) {
+                    h1 = (h1 ^ buffer.get(start + i)) * PRIME;
+                }
+            }
+        }
+
+        long hash = h0 ^ Long.rotateLeft(h1, 16) ^ Long.rotateLeft(h2, 32) ^ Long.rotateLeft(h3, 48);
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,354 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_display_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_unlock_callback_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Lock-free frame handoff between the LibVLC video callbacks and a single render thread.
+ * <p>Lock hands out a free frame, display publishes it as the latest one and the reader always gets
+ * the latest complete frame. Neither side ever waits for the other, when the reader is slow the frames
+ * it never picked are counted as overwritten, and when LibVLC has no free frame to write into the
+ * frame is dropped</p>
+ * <p>Frames are identified by the picture pointer returned on lock, so it works no matter if LibVLC calls
+ * unlock before or after display</p>
+ * <p>The layout can change between LibVLC cleanup and format callbacks using {@link #reformat(FrameLayout)},
+ * see {@link FormatNegotiator}</p>
+ */
+public class FrameExchanger implements FrameOutput {
+    // EXCHANGE STATE: READY SLOT + 1 (8 BITS), READING SLOT + 1 (8 BITS), FRESH FLAG
+    private static final int SLOT_MASK = 0xFF;
+    private static final int READING_SHIFT = 8;
+    private static final int FRESH = 1 << 16;
+    private static final int MAX_SLOTS = SLOT_MASK - 1;
+
+    protected final FrameBuffer[] frames;
+    private final ConcurrentLinkedQueue<FrameBuffer> retired = new ConcurrentLinkedQueue<>();
+    private FrameBuffer drain;
+    private volatile FrameLayout layout;
+    private final Pointer[] ids;
+    private final Pointer drainId;
+    private final FrameSlots states;
+    private final AtomicInteger exchange = new AtomicInteger();
+    private volatile boolean stamping;
+    private volatile FrameChangeDetector detector;
+    private volatile VideoMetrics metrics;
+    private long sequence;
+
+    // READER SIDE, LAST ACQUIRED FRAME
+    private long lastHash;
+    private FrameLayout lastLayout;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overwritten = new LongAdder();
+
+    private final libvlc_lock_callback_t lockCallback = this::lock;
+    private final libvlc_unlock_callback_t unlockCallback = this::unlock;
+    private final libvlc_display_callback_t displayCallback = this::display;
+    private final IntPredicate available = this::isAvailable;
+
+    /**
+     * Creates a triple buffered exchanger
+     * @param layout layout of the frames
+     */
+    public FrameExchanger(FrameLayout layout) {
+        this(layout, 3);
+    }
+
+    /**
+     * Creates an exchanger, one extra frame is allocated to drain LibVLC writes when no frame is free
+     * @param layout layout of the frames
+     * @param slots amount of frames, at least 3
+     */
+    public FrameExchanger(FrameLayout layout, int slots) {
+        this(slots);
+        if (!this.reformat(layout)) throw new IllegalStateException("Failed to allocate the frames of " + layout);
+    }
+
+    /**
+     * Creates an exchanger without frames, those are allocated on {@link #reformat(FrameLayout)}
+     * @param slots amount of frames, at least 3
+     */
+    public FrameExchanger(int slots) {
+        if (slots < 3 || slots > MAX_SLOTS) throw new IllegalArgumentException("Slots must be between 3 and " + MAX_SLOTS + ", got " + slots);
+        this.frames = new FrameBuffer[slots];
+        this.ids = new Pointer[slots];
+        this.states = new FrameSlots(slots);
+        for (int i = 0; i < slots; i++) {
+            ids[i] = new Pointer(i + 1);
+        }
+        this.drainId = new Pointer(slots + 1);
+    }
+
+    /**
+     * Sets the video callbacks of the media player.
+     * Single plane layouts also set the video format, otherwise the format callbacks are required
+     * @param player media player instance
+     */
+    @Override
+    public void attach(libvlc_media_player_t player) {
+        LibVlc.libvlc_video_set_callbacks(player, lockCallback, unlockCallback, displayCallback, null);
+        FrameLayout layout = this.layout;
+        if (layout != null && layout.planes() == 1) {
+            LibVlc.libvlc_video_set_format(player, layout.chroma(), layout.width(), layout.height(), layout.pitch(0));
+        }
+    }
+
+    public libvlc_lock_callback_t lockCallback() {
+        return lockCallback;
+    }
+
+    public libvlc_unlock_callback_t unlockCallback() {
+        return unlockCallback;
+    }
+
+    public libvlc_display_callback_t displayCallback() {
+        return displayCallback;
+    }
+
+    /**
+     * Switches all the frames to a new layout, reusing each slab when the layout fits on it and reallocating
+     * it otherwise. The frame held by the reader is never touched, it gets replaced and released once the reader
+     * is done with it. MUST only be called while LibVLC owns no frame, like on the video format callback
+     *
+     * @param layout new frame layout
+     * @return false if any frame could not be allocated, the exchanger is unusable until the next reformat
+     */
+    @Override
+    public synchronized boolean reformat(FrameLayout layout) {
+        // DROP THE LATEST FRAME, THE READER WILL GET NOTHING UNTIL THE NEXT DISPLAY
+        int current;
+        do {
+            current = exchange.get();
+        } while (!exchange.compareAndSet(current, current & (SLOT_MASK << READING_SHIFT)));
+        int reading = (current >>> READING_SHIFT) & SLOT_MASK;
+
+        boolean result = true;
+        for (int i = 0; i < frames.length; i++) {
+            states.set(i, FrameSlots.FREE);
+            if (frames[i] != null && i + 1 == reading) {
+                retired.add(frames[i]);
+                frames[i] = null;
+            }
+            result &= (frames[i] = FrameBuffer.reuse(frames[i], layout)) != null;
+        }
+        result &= (drain = FrameBuffer.reuse(drain, layout)) != null;
+        this.layout = layout;
+        return result;
+    }
+
+    /**
+     * Marks all the frames as no longer owned by LibVLC, keeping its memory for the next {@link #reformat(FrameLayout)}.
+     * Called on the video cleanup callback
+     */
+    @Override
+    public void cleanup() {
+        dropped.add(states.cleanup());
+    }
+
+    /**
+     * @return current layout of the frames, null if there is none yet
+     */
+    @Override
+    public FrameLayout layout() {
+        return layout;
+    }
+
+    /**
+     * Enables stamping displayed frames with the LibVLC clock, see {@link FrameBuffer#clock()}.
+     * The player time is never read here, it can deadlock with a stopping player
+     * @param stamping true to stamp frames
+     */
+    void setStamping(boolean stamping) {
+        this.stamping = stamping;
+    }
+
+    /**
+     * Sets the detector hashing frames on display, letting the reader know when a frame is equal to the previous one
+     * @see FrameBuffer#changed()
+     * @param detector change detector, null to disable it
+     */
+    public void setChangeDetector(FrameChangeDetector detector) {
+        this.detector = detector;
+    }
+
+    /**
+     * Sets the metrics recording the timing of the callbacks and of {@link #acquire()}
+     * @param metrics video metrics, null to disable them
+     */
+    public void setMetrics(VideoMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return amount of frames, drain frame excluded
+     */
+    @Override
+    public int slots() {
+        return frames.length;
+    }
+
+    /**
+     * Gets the latest published frame and holds it until the next call or {@link #release()},
+     * the held frame is never written by LibVLC. Must be called from a single thread
+     *
+     * @return latest published frame, or null if there is none yet. Acquiring the same frame again marks it as unchanged
+     */
+    public FrameBuffer acquire() {
+        this.releaseRetired();
+        int current, next;
+        do {
+            current = exchange.get();
+            int ready = current & SLOT_MASK;
+            if (ready == 0) return null;
+            next = ready | (ready << READING_SHIFT);
+        } while (!exchange.compareAndSet(current, next));
+
+        FrameBuffer frame = frames[(next & SLOT_MASK) - 1];
+        boolean fresh = (current & FRESH) != 0;
+        frame.changed(fresh && (frame.hash() == 0 || frame.hash() != lastHash || frame.layout() != lastLayout));
+        lastHash = frame.hash();
+        lastLayout = frame.layout();
+        VideoMetrics metrics = this.metrics;
+        if (fresh && metrics != null) metrics.picked(frame);
+        return frame;
+    }
+
+    /**
+     * Gives back the held frame, LibVLC can write on it again once it is no longer the latest
+     */
+    public void release() {
+        int current;
+        do {
+            current = exchange.get();
+        } while (!exchange.compareAndSet(current, current & ~(SLOT_MASK << READING_SHIFT)));
+        this.releaseRetired();
+    }
+
+    /**
+     * @return true if a frame was published since the last {@link #acquire()}
+     */
+    public boolean hasNewFrame() {
+        return (exchange.get() & FRESH) != 0;
+    }
+
+    /**
+     * @return frames published by display
+     */
+    public long published() {
+        return published.sum();
+    }
+
+    /**
+     * @return frames LibVLC decoded but never got published, because there was no free frame or it was never displayed
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return published frames replaced by a newer one before the reader acquired them
+     */
+    public long overwritten() {
+        return overwritten.sum();
+    }
+
+    /**
+     * Releases all the frames, only call it once the player is stopped and the reader is done
+     */
+    public synchronized void free() {
+        for (FrameBuffer frame: frames) {
+            if (frame != null) frame.release();
+        }
+        if (drain != null) drain.release();
+        this.releaseRetired();
+    }
+
+    protected Pointer lock(Pointer opaque, PointerByReference planes) {
+        VideoLan4J.checkClassLoader(FrameExchanger.class.getClassLoader());
+        int slot = states.lock(available);
+        if (slot != -1) {
+            this.lock(frames[slot], planes);
+            return ids[slot];
+        }
+        dropped.increment();
+        this.lock(drain, planes);
+        return drainId;
+    }
+
+    private void lock(FrameBuffer frame, PointerByReference planes) {
+        VideoMetrics metrics = this.metrics;
+        if (metrics != null) metrics.locked(frame);
+        frame.lock(planes);
+    }
+
+    protected void unlock(Pointer opaque, Pointer picture, Pointer plane) {
+        int slot = slot(picture);
+        VideoMetrics metrics = this.metrics;
+        if (metrics != null) metrics.unlocked(slot != -1 ? frames[slot] : drain);
+        if (states.unlock(slot)) dropped.increment();
+    }
+
+    protected void display(Pointer opaque, Pointer picture) {
+        int slot = slot(picture);
+        VideoMetrics metrics = this.metrics;
+        if (slot != -1 && metrics != null) metrics.displayed(frames[slot]);
+
+        // LIBVLC OWNS THE FRAME UNTIL IT IS PUBLISHED, THEN THE EXCHANGE STATE KEEPS IT AWAY FROM LOCK
+        if (!states.display(slot)) return;
+        FrameBuffer frame = frames[slot];
+        frame.stamp(++sequence, stamping ? LibVlc.libvlc_clock() : -1, -1);
+        FrameChangeDetector detector = this.detector;
+        frame.hash(detector != null ? detector.hash(frame) : 0);
+        onDisplay(frame);
+
+        int current, next;
+        do {
+            current = exchange.get();
+            next = (current & (SLOT_MASK << READING_SHIFT)) | (slot + 1) | FRESH;
+        } while (!exchange.compareAndSet(current, next));
+        if ((current & FRESH) != 0) overwritten.increment();
+        published.increment();
+        states.displayed(slot);
+    }
+
+    /**
+     * Called on the LibVLC thread right before the frame gets published
+     * @param frame displayed frame
+     */
+    protected void onDisplay(FrameBuffer frame) {
+
+    }
+
+    private void releaseRetired() {
+        FrameBuffer frame;
+        while ((frame = retired.poll()) != null) {
+            frame.release();
+        }
+    }
+
+    private int slot(Pointer picture) {
+        long id = Pointer.nativeValue(picture);
+        return id >= 1 && id <= frames.length ? (int) id - 1 : -1;
+    }
+
+    private boolean isAvailable(int slot) {
+        return frames[slot] != null && !isExchanged(exchange.get(), slot);
+    }
+
+    private static boolean isExchanged(int exchange, int slot) {
+        int id = slot + 1;
+        return (exchange & SLOT_MASK) == id || ((exchange >>> READING_SHIFT) & SLOT_MASK) == id;
+    }
+}
@@ -0,0 +1,225 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_display_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_unlock_callback_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Publishes every displayed frame of one media player to many {@link FrameSubscriber}s, one decode feeds many views.
+ * <p>Frames are reference counted, a frame goes back to LibVLC once every subscriber that received it releases it.
+ * When all the frames are held LibVLC writes into a drain frame and that frame is dropped</p>
+ * <p>Slow subscribers only fill their own queue, what happens then is up to its {@link DropPolicy}</p>
+ */
+public class FrameFanout implements FrameOutput {
+    private final FrameBuffer[] frames;
+    private final Pointer[] ids;
+    private final Pointer drainId;
+    private final FrameSlots states;
+    private FrameBuffer drain;
+    private volatile FrameLayout layout;
+    private volatile FrameSubscriber[] subscribers = new FrameSubscriber[0];
+    private volatile VideoMetrics metrics;
+    private long sequence;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final libvlc_lock_callback_t lockCallback = this::lock;
+    private final libvlc_unlock_callback_t unlockCallback = this::unlock;
+    private final libvlc_display_callback_t displayCallback = this::display;
+    private final IntPredicate available = this::isAvailable;
+
+    /**
+     * Creates a fanout without frames, those are allocated on {@link #reformat(FrameLayout)}
+     * @param slots amount of frames, should cover the queues of all subscribers plus the frames LibVLC holds
+     */
+    public FrameFanout(int slots) {
+        if (slots < 2) throw new IllegalArgumentException("Slots must be at least 2, got " + slots);
+        this.frames = new FrameBuffer[slots];
+        this.ids = new Pointer[slots];
+        this.states = new FrameSlots(slots);
+        for (int i = 0; i < slots; i++) {
+            ids[i] = new Pointer(i + 1);
+        }
+        this.drainId = new Pointer(slots + 1);
+    }
+
+    /**
+     * Adds a subscriber, it receives the frames displayed from now on
+     * @param capacity max queued frames
+     * @param policy what to do when the queue is full
+     * @return new subscriber, close it to unsubscribe
+     */
+    public synchronized FrameSubscriber subscribe(int capacity, DropPolicy policy) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        if (policy == null) throw new IllegalArgumentException("Drop policy cannot be null");
+        FrameSubscriber subscriber = new FrameSubscriber(this, capacity, policy);
+        FrameSubscriber[] result = Arrays.copyOf(subscribers, subscribers.length + 1);
+        result[result.length - 1] = subscriber;
+        subscribers = result;
+        return subscriber;
+    }
+
+    synchronized void unsubscribe(FrameSubscriber subscriber) {
+        FrameSubscriber[] result = new FrameSubscriber[subscribers.length];
+        int count = 0;
+        for (FrameSubscriber s: subscribers) {
+            if (s != subscriber) result[count++] = s;
+        }
+        subscribers = Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Sets the video callbacks of the media player.
+     * Single plane layouts also set the video format, otherwise the format callbacks are required
+     * @param player media player instance
+     */
+    @Override
+    public void attach(libvlc_media_player_t player) {
+        LibVlc.libvlc_video_set_callbacks(player, lockCallback, unlockCallback, displayCallback, null);
+        FrameLayout layout = this.layout;
+        if (layout != null && layout.planes() == 1) {
+            LibVlc.libvlc_video_set_format(player, layout.chroma(), layout.width(), layout.height(), layout.pitch(0));
+        }
+    }
+
+    /**
+     * Switches all the frames to a new layout, frames held by subscribers are replaced
+     * and released once the last subscriber releases them
+     */
+    @Override
+    public synchronized boolean reformat(FrameLayout layout) {
+        boolean result = true;
+        for (int i = 0; i < frames.length; i++) {
+            states.set(i, FrameSlots.FREE);
+            FrameBuffer frame = frames[i];
+            if (frame != null && frame.refs.get() > 0) {
+                frame.retired = true;
+                if (frame.refs.get() == 0) frame.release(); // RELEASED MEANWHILE
+                frame = null;
+            }
+            result &= (frames[i] = FrameBuffer.reuse(frame, layout)) != null;
+        }
+        result &= (drain = FrameBuffer.reuse(drain, layout)) != null;
+        this.layout = layout;
+        return result;
+    }
+
+    @Override
+    public void cleanup() {
+        dropped.add(states.cleanup());
+    }
+
+    @Override
+    public FrameLayout layout() {
+        return layout;
+    }
+
+    @Override
+    public int slots() {
+        return frames.length;
+    }
+
+    /**
+     * Sets the metrics recording the timing of the callbacks and of the subscribers polls
+     * @param metrics video metrics, null to disable them
+     */
+    public void setMetrics(VideoMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return frames published to the subscribers
+     */
+    public long published() {
+        return published.sum();
+    }
+
+    /**
+     * @return frames LibVLC decoded but never got published, because all frames were held or it was never displayed
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Releases all the frames, only call it once the player is stopped and all subscribers are closed
+     */
+    public synchronized void free() {
+        for (FrameBuffer frame: frames) {
+            if (frame != null) frame.release();
+        }
+        if (drain != null) drain.release();
+    }
+
+    void picked(FrameBuffer frame) {
+        VideoMetrics metrics = this.metrics;
+        if (frame != null && metrics != null) metrics.picked(frame);
+    }
+
+    void release(FrameBuffer frame) {
+        int refs = frame.refs.decrementAndGet();
+        if (refs < 0) throw new IllegalStateException("Frame was released more times than received");
+        if (refs == 0 && frame.retired) frame.release();
+    }
+
+    protected Pointer lock(Pointer opaque, PointerByReference planes) {
+        VideoLan4J.checkClassLoader(FrameFanout.class.getClassLoader());
+        int slot = states.lock(available);
+        if (slot != -1) {
+            this.lock(frames[slot], planes);
+            return ids[slot];
+        }
+        dropped.increment();
+        this.lock(drain, planes);
+        return drainId;
+    }
+
+    private void lock(FrameBuffer frame, PointerByReference planes) {
+        VideoMetrics metrics = this.metrics;
+        if (metrics != null) metrics.locked(frame);
+        frame.lock(planes);
+    }
+
+    protected void unlock(Pointer opaque, Pointer picture, Pointer plane) {
+        int slot = slot(picture);
+        VideoMetrics metrics = this.metrics;
+        if (metrics != null) metrics.unlocked(slot != -1 ? frames[slot] : drain);
+        if (states.unlock(slot)) dropped.increment();
+    }
+
+    protected void display(Pointer opaque, Pointer picture) {
+        int slot = slot(picture);
+        VideoMetrics metrics = this.metrics;
+        if (slot != -1 && metrics != null) metrics.displayed(frames[slot]);
+
+        // LIBVLC OWNS THE FRAME UNTIL THE SUBSCRIBERS TAKE THEIR REFERENCES, THOSE KEEP IT AWAY FROM LOCK
+        if (!states.display(slot)) return;
+        FrameBuffer frame = frames[slot];
+        frame.stamp(++sequence, -1, -1);
+        for (FrameSubscriber subscriber: subscribers) {
+            subscriber.offer(frame);
+        }
+        published.increment();
+        states.displayed(slot);
+    }
+
+    private boolean isAvailable(int slot) {
+        FrameBuffer frame = frames[slot];
+        return frame != null && frame.refs.get() == 0;
+    }
+
+    private int slot(Pointer picture) {
+        long id = Pointer.nativeValue(picture);
+        return id >= 1 && id <= frames.length ? (int) id - 1 : -1;
+    }
+}
@@ -0,0 +1,270 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.watermedia.videolan4j.ByteBufferFactory;
+import org.watermedia.videolan4j.VideoLan4J;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Memory layout of a video frame, plane pitches, scanlines and offsets inside one slab.
+ * <p>Pitches are padded to the pitch alignment and scanlines to 32 lines, as LibVLC recommends for
+ * the video format callback. Each plane starts aligned to the plane alignment</p>
+ */
+public class FrameLayout {
+    private static final int LINE_ALIGNMENT = 32;
+
+    private final String chroma;
+    private final int width;
+    private final int height;
+    private final int[] pitches;
+    private final int[] bytes;
+    private final int[] lines;
+    private final int[] rows;
+    private final int[] shifts;
+    private final int[] offsets;
+    private final int size;
+    private final int planeAlignment;
+
+    private FrameLayout(String chroma, int width, int height, int[] pitches, int[] bytes, int[] lines, int[] shifts, int planeAlignment) {
+        this.chroma = chroma;
+        this.width = width;
+        this.height = height;
+        this.pitches = pitches;
+        this.bytes = bytes;
+        this.lines = lines;
+        this.shifts = shifts;
+        this.planeAlignment = planeAlignment;
+        this.rows = new int[lines.length];
+        this.offsets = new int[pitches.length];
+
+        long offset = 0;
+        for (int i = 0; i < pitches.length; i++) {
+            offset = align(offset, planeAlignment);
+            offsets[i] = (int) offset;
+            rows[i] = lines[i] == lines[0] ? height : half(height); // SUBSAMPLED PLANES HAVE HALF THE LINES
+            offset += (long) pitches[i] * lines[i];
+        }
+        if (offset > Integer.MAX_VALUE) throw new IllegalArgumentException("Frame of " + width + "x" + height + " " + chroma + " is too big");
+        this.size = (int) offset;
+    }
+
+    /**
+     * Computes the layout using the default LibVLC alignment for pitches and planes
+     * @see #of(String, int, int, int, int)
+     */
+    public static FrameLayout of(String chroma, int width, int height) {
+        return of(chroma, width, height, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT, VideoLan4J.LIBVLC_BUFFER_ALIGNMENT);
+    }
+
+    /**
+     * Computes the layout of a frame
+     * <p>Supported chromas are RV32, RGBA, BGRA, ARGB, RV24, RV16, RV15, GREY, YUY2, YVYU, UYVY, VYUY,
+     * I420, J420, YV12, NV12, NV21, I422, J422, I444 and J444</p>
+     *
+     * @param chroma 4 characters chroma code
+     * @param width pixel width
+     * @param height pixel height
+     * @param pitchAlignment power of two alignment of each scanline, in bytes
+     * @param planeAlignment power of two alignment of each plane start, in bytes
+     * @return frame layout
+     * @throws IllegalArgumentException if the chroma is not supported or the size is not valid
+     */
+    public static FrameLayout of(String chroma, int width, int height, int pitchAlignment, int planeAlignment) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Invalid frame size " + width + "x" + height);
+        ByteBufferFactory.checkAlignment(pitchAlignment);
+        ByteBufferFactory.checkAlignment(planeAlignment);
+
+        int lumaLines = (int) align(height, LINE_ALIGNMENT);
+        int[] bytes;    // BYTES PER SCANLINE OF EACH PLANE
+        int[] lines;    // SCANLINES OF EACH PLANE
+        int[] shifts = { 0, 0, 0 }; // HORIZONTAL SUBSAMPLING OF EACH PLANE
+        switch (chroma) {
+            case "RV32": case "RGBA": case "BGRA": case "ARGB":
+                bytes = new int[] { width * 4 };
+                lines = new int[] { lumaLines };
+                break;
+            case "RV24":
+                bytes = new int[] { width * 3 };
+                lines = new int[] { lumaLines };
+                break;
+            case "RV16": case "RV15":
+                bytes = new int[] { width * 2 };
+                lines = new int[] { lumaLines };
+                break;
+            case "GREY":
+                bytes = new int[] { width };
+                lines = new int[] { lumaLines };
+                break;
+            case "YUY2": case "YVYU": case "UYVY": case "VYUY":
+                bytes = new int[] { half(width) * 4 };
+                lines = new int[] { lumaLines };
+                shifts = new int[] { 1 };
+                break;
+            case "I420": case "J420": case "YV12":
+                bytes = new int[] { width, half(width), half(width) };
+                lines = new int[] { lumaLines, lumaLines / 2, lumaLines / 2 };
+                shifts = new int[] { 0, 1, 1 };
+                break;
+            case "NV12": case "NV21":
+                bytes = new int[] { width, half(width) * 2 };
+                lines = new int[] { lumaLines, lumaLines / 2 };
+                shifts = new int[] { 0, 1 };
+                break;
+            case "I422": case "J422":
+                bytes = new int[] { width, half(width), half(width) };
+                lines = new int[] { lumaLines, lumaLines, lumaLines };
+                shifts = new int[] { 0, 1, 1 };
+                break;
+            case "I444": case "J444":
+                bytes = new int[] { width, width, width };
+                lines = new int[] { lumaLines, lumaLines, lumaLines };
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported chroma '" + chroma + "'");
+        }
+
+        int[] pitches = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            pitches[i] = (int) align(bytes[i], pitchAlignment);
+        }
+        return new FrameLayout(chroma, width, height, pitches, bytes, lines, Arrays.copyOf(shifts, bytes.length), planeAlignment);
+    }
+
+    /**
+     * Writes the layout into the output parameters of the video format callback
+     * <p>The result of the callback is the amount of picture buffers, 0 indicates failure</p>
+     * @see org.watermedia.videolan4j.binding.internal.libvlc_video_format_cb
+     *
+     * @param chroma pointer to the 4 bytes video format identifier
+     * @param width pointer to the pixel width
+     * @param height pointer to the pixel height
+     * @param pitches table of scanline pitches for each plane
+     * @param lines table of scanlines count for each plane
+     */
+    public void apply(PointerByReference chroma, IntByReference width, IntByReference height, PointerByReference pitches, PointerByReference lines) {
+        byte[] fourcc = this.chroma.getBytes(StandardCharsets.US_ASCII);
+        chroma.getPointer().write(0, fourcc, 0, fourcc.length);
+        width.setValue(this.width);
+        height.setValue(this.height);
+        pitches.getPointer().write(0, this.pitches, 0, this.pitches.length);
+        lines.getPointer().write(0, this.lines, 0, this.lines.length);
+    }
+
+    public String chroma() {
+        return chroma;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return amount of pixel planes
+     */
+    public int planes() {
+        return pitches.length;
+    }
+
+    /**
+     * @param plane plane index
+     * @return scanline size in bytes, including the padding
+     */
+    public int pitch(int plane) {
+        return pitches[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return scanline size in bytes, excluding the padding
+     */
+    public int rowBytes(int plane) {
+        return bytes[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return scanlines count, including the padding
+     */
+    public int lines(int plane) {
+        return lines[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return scanlines holding pixels, excluding the padding
+     */
+    public int rows(int plane) {
+        return rows[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return horizontal subsampling of the plane, 1 when each sample covers a pixel pair
+     */
+    public int horizontalShift(int plane) {
+        return shifts[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return vertical subsampling of the plane, 1 when each scanline covers two pixel rows
+     */
+    public int verticalShift(int plane) {
+        return lines[plane] == lines[0] ? 0 : 1;
+    }
+
+    /**
+     * @param plane plane index
+     * @return bytes of each sample of the plane, all the components of a pixel pair on packed 4:2:2
+     */
+    public int bytesPerPixel(int plane) {
+        return bytes[plane] / ((width + (1 << shifts[plane]) - 1) >> shifts[plane]);
+    }
+
+    /**
+     * @param plane plane index
+     * @return plane start inside the slab, in bytes
+     */
+    public int offset(int plane) {
+        return offsets[plane];
+    }
+
+    /**
+     * @param plane plane index
+     * @return plane size in bytes
+     */
+    public int planeSize(int plane) {
+        return pitches[plane] * lines[plane];
+    }
+
+    /**
+     * @return slab size in bytes, all planes included
+     */
+    public int size() {
+        return size;
+    }
+
+    public int planeAlignment() {
+        return planeAlignment;
+    }
+
+    @Override
+    public String toString() {
+        return chroma + " " + width + "x" + height + " pitches=" + Arrays.toString(pitches) + " lines=" + Arrays.toString(lines) + " size=" + size;
+    }
+
+    private static int half(int value) {
+        return (value + 1) >> 1;
+    }
+
+    private static long align(long value, int alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+}
@@ -0,0 +1,39 @@
+package org.watermedia.videolan4j.video;
+
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+
+/**
+ * Receiver of the decoded frames of a media player, the target of a {@link FormatNegotiator}
+ */
+public interface FrameOutput {
+
+    /**
+     * Sets the video callbacks of the media player
+     * @param player media player instance
+     */
+    void attach(libvlc_media_player_t player);
+
+    /**
+     * Switches all the frames to a new layout.
+     * MUST only be called while LibVLC owns no frame, like on the video format callback
+     *
+     * @param layout new frame layout
+     * @return false if any frame could not be allocated
+     */
+    boolean reformat(FrameLayout layout);
+
+    /**
+     * Marks all the frames as no longer owned by LibVLC, called on the video cleanup callback
+     */
+    void cleanup();
+
+    /**
+     * @return current layout of the frames, null if there is none yet
+     */
+    FrameLayout layout();
+
+    /**
+     * @return amount of frames LibVLC can use
+     */
+    int slots();
+}
@@ -0,0 +1,120 @@
+package org.watermedia.videolan4j.video;
+
+import org.watermedia.videolan4j.ByteBufferFactory;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+/**
+ * Region of interest of the video frames, like a tile of a video wall. Can be changed at any time during playback.
+ * <p>The region can reach the consumer in two ways: {@link #crop(libvlc_media_player_t)} makes LibVLC crop before the
+ * frames reach the video callbacks, and {@link #extract(FrameBuffer)} copies only the rows and columns of the region
+ * into a reusable frame, leaving the source frames untouched for other consumers</p>
+ * <p>The region is rounded to even pixels, subsampled chromas cannot split a pixel pair</p>
+ */
+public class FrameRegion {
+    private volatile int[] region;
+    private FrameBuffer target;
+
+    /**
+     * Creates a region
+     * @param x left pixel
+     * @param y top pixel
+     * @param width pixel width
+     * @param height pixel height
+     */
+    public FrameRegion(int x, int y, int width, int height) {
+        this.set(x, y, width, height);
+    }
+
+    /**
+     * Moves or resizes the region, applied to the next extracted frame
+     * @param x left pixel
+     * @param y top pixel
+     * @param width pixel width
+     * @param height pixel height
+     */
+    public void set(int x, int y, int width, int height) {
+        if (x < 0 || y < 0 || width <= 0 || height <= 0) throw new IllegalArgumentException("Invalid region " + width + "x" + height + "+" + x + "+" + y);
+        int left = x & ~1, top = y & ~1;
+        this.region = new int[] { left, top, Math.max(2, (x + width - left + 1) & ~1), Math.max(2, (y + height - top + 1) & ~1) };
+    }
+
+    public int x() {
+        return region[0];
+    }
+
+    public int y() {
+        return region[1];
+    }
+
+    public int width() {
+        return region[2];
+    }
+
+    public int height() {
+        return region[3];
+    }
+
+    /**
+     * Sets the region as the crop geometry of the player, LibVLC crops the frames before the video callbacks
+     * and the format callback negotiates the smaller size. Call it again after moving the region
+     *
+     * @param player media player instance
+     */
+    public void crop(libvlc_media_player_t player) {
+        int[] region = this.region;
+        LibVlc.libvlc_video_set_crop_geometry(player, region[2] + "x" + region[3] + "+" + region[0] + "+" + region[1]);
+    }
+
+    /**
+     * Removes the crop geometry of the player
+     * @param player media player instance
+     */
+    public static void uncrop(libvlc_media_player_t player) {
+        LibVlc.libvlc_video_set_crop_geometry(player, null);
+    }
+
+    /**
+     * Copies the region of the frame into the target frame, the region is clamped to the frame size.
+     * The target frame is reused across calls and only reallocated when it grows. Must be called from a single thread
+     *
+     * @param frame source frame
+     * @return target frame, valid until the next call. Null if the region is outside the frame or the allocation failed
+     */
+    public FrameBuffer extract(FrameBuffer frame) {
+        int[] region = this.region;
+        FrameLayout source = frame.layout();
+        int x = region[0], y = region[1];
+        int width = Math.min(region[2], source.width() - x) & ~1;
+        int height = Math.min(region[3], source.height() - y) & ~1;
+        if (width <= 0 || height <= 0) return null;
+
+        FrameLayout layout = target != null ? target.layout() : null;
+        if (layout == null || layout.width() != width || layout.height() != height || !layout.chroma().equals(source.chroma())) {
+            target = FrameBuffer.reuse(target, FrameLayout.of(source.chroma(), width, height));
+            if (target == null) return null;
+            layout = target.layout();
+        }
+
+        for (int plane = 0; plane < layout.planes(); plane++) {
+            // PLANE COORDINATES, THE REGION STARTS ON EVEN PIXELS SO IT NEVER SPLITS A SUBSAMPLED PAIR
+            long left = (long) (x >> source.horizontalShift(plane)) * source.bytesPerPixel(plane);
+            long top = y >> source.verticalShift(plane);
+            int srcPitch = source.pitch(plane), dstPitch = layout.pitch(plane), bytes = layout.rowBytes(plane);
+            for (int row = 0; row < layout.rows(plane); row++) {
+                ByteBufferFactory.copy(frame.plane(plane), (int) ((top + row) * srcPitch + left), target.plane(plane), row * dstPitch, bytes);
+            }
+        }
+        target.stamp(frame.sequence(), frame.clock(), frame.time());
+        target.changed(frame.changed());
+        return target;
+    }
+
+    /**
+     * Releases the target frame
+     */
+    public void free() {
+        if (target != null) target.release();
+        target = null;
+    }
+}
@@ -0,0 +1,144 @@
+package org.watermedia.videolan4j.video;
+
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Paces the frames of a {@link FrameExchanger} to the render loop refreshes.
+ * <p>Displayed frames get stamped with {@link LibVlc#libvlc_clock()}, the render thread asks
+ * for the frame due at the time the next refresh gets presented and only gets a frame when there is a new one to show,
+ * so nothing is uploaded to be never shown</p>
+ * <p>A frame displayed by LibVLC after the previous refresh was presented is early and waits for the next refresh,
+ * a frame which missed the previous refresh is late, and a frame replaced by a newer one before being shown is skipped.
+ * All the methods except the counters MUST be called from the render thread</p>
+ * <p>With a player the returned frames also get their {@link FrameBuffer#time()}, the player time is read here
+ * and moved back by the clock elapsed since the frame was displayed. It is never read on the LibVLC threads,
+ * where it can deadlock with a stopping player</p>
+ */
+public class FrameScheduler {
+    private final FrameExchanger exchanger;
+    private final libvlc_media_player_t player;
+    private volatile long interval;
+    private FrameBuffer pending;
+    private boolean pendingEarly;
+
+    private final LongAdder shown = new LongAdder();
+    private final LongAdder early = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * Creates a scheduler and enables frame stamping on the exchanger
+     * @param exchanger frame exchanger
+     * @param interval refresh interval, in microseconds
+     */
+    public FrameScheduler(FrameExchanger exchanger, long interval) {
+        this(exchanger, null, interval);
+    }
+
+    /**
+     * Creates a scheduler estimating the player time of the frames and enables frame stamping on the exchanger
+     * @param exchanger frame exchanger
+     * @param player media player of the exchanger, null to leave the frame time unknown
+     * @param interval refresh interval, in microseconds
+     */
+    public FrameScheduler(FrameExchanger exchanger, libvlc_media_player_t player, long interval) {
+        this.setInterval(interval);
+        this.exchanger = exchanger;
+        this.player = player;
+        this.exchanger.setStamping(true);
+    }
+
+    /**
+     * @return current LibVLC clock, in microseconds
+     */
+    public static long clock() {
+        return LibVlc.libvlc_clock();
+    }
+
+    /**
+     * Sets the refresh interval, like 16666 for 60 Hz
+     * @param interval refresh interval, in microseconds
+     */
+    public void setInterval(long interval) {
+        if (interval <= 0) throw new IllegalArgumentException("Interval must be positive, got " + interval);
+        this.interval = interval;
+    }
+
+    public long interval() {
+        return interval;
+    }
+
+    /**
+     * Gets the frame to show on the next refresh, presented one interval from now
+     * @see #poll(long)
+     */
+    public FrameBuffer poll() {
+        return poll(clock() + interval);
+    }
+
+    /**
+     * Gets the frame to show on the refresh presented at the given time.
+     * The frame stays valid until the next poll
+     *
+     * @param due time when the refresh gets presented, in {@link #clock()} microseconds
+     * @return new frame due at that time, or null if the previous frame must stay on screen
+     */
+    public FrameBuffer poll(long due) {
+        if (exchanger.hasNewFrame()) {
+            FrameBuffer frame = exchanger.acquire();
+            if (pending != null && pending != frame) skipped.increment();
+            pending = frame;
+            pendingEarly = false;
+        }
+        if (pending == null) return null;
+
+        // THE PREVIOUS REFRESH WAS PRESENTED ONE INTERVAL BEFORE THE DUE TIME
+        long clock = pending.clock(), interval = this.interval;
+        if (clock > due - interval) {
+            if (!pendingEarly) early.increment();
+            pendingEarly = true;
+            return null;
+        }
+        if (due - clock > 2 * interval) late.increment();
+        shown.increment();
+
+        FrameBuffer result = pending;
+        pending = null;
+        if (player != null) {
+            long time = LibVlc.libvlc_media_player_get_time(player);
+            result.time(time < 0 ? -1 : Math.max(0, time - (clock() - clock) / 1000));
+        }
+        return result;
+    }
+
+    /**
+     * @return frames returned by {@link #poll(long)}
+     */
+    public long shown() {
+        return shown.sum();
+    }
+
+    /**
+     * @return frames which had to wait for a later refresh
+     */
+    public long early() {
+        return early.sum();
+    }
+
+    /**
+     * @return frames shown one refresh later than they could, displayed by LibVLC before the previous refresh
+     */
+    public long late() {
+        return late.sum();
+    }
+
+    /**
+     * @return frames never shown, replaced by a newer one on the scheduler or the exchanger
+     */
+    public long skipped() {
+        return skipped.sum() + exchanger.overwritten();
+    }
+}
@@ -0,0 +1,143 @@
+package org.watermedia.videolan4j.video;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+
+/**
+ * Ownership of the frames handed to LibVLC by the video callbacks, shared by all the {@link FrameOutput}s.
+ * <p>LibVLC may call unlock before or after display. A frame is only given back once both ran and display
+ * published it, so nothing can lock a frame while it is being stamped or published. Decoded frames are never
+ * taken back from LibVLC, it queues them ahead of their display date; when no frame is free the output
+ * falls back to its drain frame</p>
+ * <p>The order is learned on the first display finding its frame still locked. From then on a frame unlocked
+ * before display was dropped by LibVLC and goes back right away</p>
+ * <p>Slot -1 stands for the drain frame</p>
+ * <p>The bits above {@link #LIBVLC_MASK} belong to the output, like a consumer holding the frame, and are kept
+ * by every LibVLC transition. A frame is only free when no bit is set</p>
+ */
+final class FrameSlots {
+    static final int FREE = 0;      // NOT OWNED BY ANYONE
+    static final int LOCKED = 1;    // LIBVLC IS WRITING
+    static final int DECODED = 2;   // UNLOCKED, DISPLAY DID NOT PUBLISH IT YET
+    static final int DISPLAYED = 3; // PUBLISHED, WAITING FOR UNLOCK
+    static final int LIBVLC_MASK = 3;
+
+    private final AtomicIntegerArray states;
+    private final AtomicInteger draining = new AtomicInteger(); // DRAIN FRAMES LOCKED AND NOT UNLOCKED YET
+    private volatile boolean displayFirst;
+
+    FrameSlots(int slots) {
+        this.states = new AtomicIntegerArray(slots);
+    }
+
+    int length() {
+        return states.length();
+    }
+
+    int get(int slot) {
+        return states.get(slot);
+    }
+
+    void set(int slot, int state) {
+        states.set(slot, state);
+    }
+
+    /**
+     * Lock callback, takes the first free slot the output considers available
+     * @param available checked before and after taking the slot, it may change meanwhile
+     * @return locked slot, -1 if there is none and LibVLC should write into the drain frame
+     */
+    int lock(IntPredicate available) {
+        for (int i = 0; i < states.length(); i++) {
+            if (!available.test(i) || !states.compareAndSet(i, FREE, LOCKED)) continue;
+            if (available.test(i)) return i;
+            states.set(i, FREE); // PUBLISHED BETWEEN THE CHECK AND THE CAS
+        }
+        draining.incrementAndGet();
+        return -1;
+    }
+
+    /**
+     * Unlock callback, a displayed slot goes back to its output
+     * @return true if the frame was dropped by LibVLC, unlocked without being displayed
+     */
+    boolean unlock(int slot) {
+        if (slot == -1) {
+            draining.decrementAndGet();
+            return false;
+        }
+        if (states.compareAndSet(slot, LOCKED, displayFirst ? FREE : DECODED)) return displayFirst;
+        int state;
+        do {
+            state = states.get(slot);
+            if ((state & LIBVLC_MASK) != DISPLAYED) return false;
+        } while (!states.compareAndSet(slot, state, state & ~LIBVLC_MASK));
+        return false;
+    }
+
+    /**
+     * Display callback, called before stamping and publishing the frame. A decoded slot stays owned by LibVLC
+     * until {@link #displayed(int)}
+     * @return false if LibVLC does not own the slot, like the drain or after a reformat, and it must not be published
+     */
+    boolean display(int slot) {
+        if (slot == -1) {
+            if (draining.get() > 0) displayFirst = true;
+            return false;
+        }
+        if (states.compareAndSet(slot, LOCKED, DISPLAYED)) {
+            displayFirst = true;
+            return true;
+        }
+        return (states.get(slot) & LIBVLC_MASK) == DECODED;
+    }
+
+    /**
+     * Display callback, called once the frame is published. Gives back a slot unlocked before display
+     */
+    void displayed(int slot) {
+        int state;
+        do {
+            state = states.get(slot);
+            if ((state & LIBVLC_MASK) != DECODED) return;
+        } while (!states.compareAndSet(slot, state, state & ~LIBVLC_MASK));
+    }
+
+    /**
+     * Sets output bits, the slot cannot be locked until those are cleared
+     */
+    void hold(int slot, int bits) {
+        int state;
+        do {
+            state = states.get(slot);
+        } while (!states.compareAndSet(slot, state, state | bits));
+    }
+
+    /**
+     * Clears output bits
+     */
+    void unhold(int slot, int bits) {
+        int state;
+        do {
+            state = states.get(slot);
+        } while (!states.compareAndSet(slot, state, state & ~bits));
+    }
+
+    /**
+     * Gives back all the slots owned by LibVLC, output bits are kept. Called on the video cleanup callback
+     * @return slots decoded but never displayed
+     */
+    int cleanup() {
+        draining.set(0);
+        int decoded = 0;
+        for (int i = 0; i < states.length(); i++) {
+            int state;
+            do {
+                state = states.get(i);
+            } while (!states.compareAndSet(i, state, state & ~LIBVLC_MASK));
+            if ((state & LIBVLC_MASK) == DECODED) decoded++;
+        }
+        return decoded;
+    }
+}
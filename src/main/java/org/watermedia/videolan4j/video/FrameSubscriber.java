@@ -0,0 +1,101 @@
+package org.watermedia.videolan4j.video;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * View of a {@link FrameFanout}, receives every displayed frame on a bounded queue.
+ * <p>Each polled frame MUST be given back with {@link #release(FrameBuffer)} once done with it, the frame
+ * returns to the fanout when the last subscriber releases it</p>
+ */
+public class FrameSubscriber implements AutoCloseable {
+    private final FrameFanout fanout;
+    private final ArrayBlockingQueue<FrameBuffer> queue;
+    private final DropPolicy policy;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    FrameSubscriber(FrameFanout fanout, int capacity, DropPolicy policy) {
+        this.fanout = fanout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * @return oldest queued frame, or null if there is none
+     */
+    public FrameBuffer poll() {
+        FrameBuffer frame = queue.poll();
+        fanout.picked(frame);
+        return frame;
+    }
+
+    /**
+     * Waits for a frame
+     * @param timeout max time to wait
+     * @param unit timeout unit
+     * @return oldest queued frame, or null if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public FrameBuffer poll(long timeout, TimeUnit unit) throws InterruptedException {
+        FrameBuffer frame = queue.poll(timeout, unit);
+        fanout.picked(frame);
+        return frame;
+    }
+
+    /**
+     * Gives back a polled frame
+     * @param frame frame returned by {@link #poll()}
+     */
+    public void release(FrameBuffer frame) {
+        fanout.release(frame);
+    }
+
+    /**
+     * @return frames dropped because the queue was full
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public DropPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Unsubscribes and releases all the queued frames, polled frames still need to be released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        fanout.unsubscribe(this);
+        this.drain();
+    }
+
+    /**
+     * Queues a frame, called from the display callback
+     */
+    void offer(FrameBuffer frame) {
+        frame.refs.incrementAndGet();
+        if (!queue.offer(frame)) {
+            if (policy == DropPolicy.DROP_OLDEST) {
+                FrameBuffer oldest = queue.poll();
+                if (oldest != null) fanout.release(oldest);
+            }
+            dropped.increment();
+            if (policy == DropPolicy.DROP_NEWEST || !queue.offer(frame)) {
+                fanout.release(frame);
+                return;
+            }
+        }
+        if (closed) this.drain(); // CLOSED WHILE OFFERING
+    }
+
+    private void drain() {
+        FrameBuffer frame;
+        while ((frame = queue.poll()) != null) {
+            fanout.release(frame);
+        }
+    }
+}
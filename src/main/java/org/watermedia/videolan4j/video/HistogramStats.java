@@ -0,0 +1,64 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * Snapshot of a duration histogram of {@link VideoMetrics}, all values are in nanoseconds
+ * <p>Percentiles are resolved to the upper bound of their bucket, at most 12.5% above the recorded value</p>
+ */
+public final class HistogramStats {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramStats(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * @return amount of recorded values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return average value, 0 when empty
+     */
+    public long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * @return highest recorded value
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return value under which the given percentile of the recorded values are, 0 when empty
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be between 0 and 100, got " + percentile);
+        long total = 0;
+        for (long c: counts) total += c;
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length - 1; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(max, Histogram.lowest(i + 1) - 1);
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramStats{count=" + count + ", mean=" + mean() + "ns, p50=" + percentile(50) + "ns, p99=" + percentile(99) + "ns, max=" + max + "ns}";
+    }
+}
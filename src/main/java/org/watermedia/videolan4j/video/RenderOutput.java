@@ -0,0 +1,196 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_color_primaries_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_color_space_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_engine_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_frameMetadata_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_frame_hdr10_metadata_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_getProcAddress_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_makeCurrent_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_metadata_type_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_orient_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_cleanup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_resize_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_set_window_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_output_setup_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_swap_cb;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_transfer_func_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_update_output_cb;
+import org.watermedia.videolan4j.binding.lib.LibVlc4;
+import org.watermedia.videolan4j.tools.Version;
+
+/**
+ * Zero-copy video output, LibVLC renders each frame with OpenGL or GLES2 into a surface owned by the application
+ * instead of locking and copying frames into memory.
+ * <p>Implementations own the rendering context, usually a shared offscreen context with a framebuffer the render
+ * thread samples from. LibVLC renders in RGBA, full range BT.709 with the sRGB transfer.
+ * All the methods are called on the LibVLC video output thread</p>
+ * <p>The size of the rendering area can be reported with {@link #reportSize(int, int)}, LibVLC then renders
+ * subtitles and keeps the aspect ratio for it</p>
+ * <p>Requires LibVLC 4.0.0 or later, check {@link #isSupported()} and fall back to the memory callbacks otherwise</p>
+ */
+public abstract class RenderOutput {
+    private static final Marker IT = MarkerManager.getMarker("RenderOutput");
+    public static final Version MIN_VERSION = new Version("4.0.0");
+    private static final int GL_RGBA = 0x1908;
+
+    private final libvlc_video_output_setup_cb setupCallback = (opaque, cfg, out) -> {
+        VideoLan4J.checkClassLoader(RenderOutput.class.getClassLoader());
+        return this.setup() ? 1 : 0;
+    };
+    private final libvlc_video_output_cleanup_cb cleanupCallback = opaque -> this.cleanup();
+    private final libvlc_video_output_set_window_cb windowCallback = (opaque, resize, move, press, release, report) -> {
+        synchronized (this) {
+            this.resizeReport = resize;
+            this.reportOpaque = report;
+        }
+    };
+    private final libvlc_video_update_output_cb updateOutputCallback = (opaque, cfg, output) -> {
+        this.width = cfg.width;
+        this.height = cfg.height;
+        if (!this.resize(cfg.width, cfg.height)) return 0;
+
+        output.u.setType("opengl_format");
+        output.u.opengl_format = GL_RGBA;
+        output.full_range = 1;
+        output.colorspace = libvlc_video_color_space_t.libvlc_video_colorspace_BT709.intValue();
+        output.primaries = libvlc_video_color_primaries_t.libvlc_video_primaries_BT709.intValue();
+        output.transfer = libvlc_video_transfer_func_t.libvlc_video_transfer_func_SRGB.intValue();
+        output.orientation = libvlc_video_orient_t.libvlc_video_orient_top_left.intValue();
+        output.write();
+        return 1;
+    };
+    private final libvlc_video_swap_cb swapCallback = opaque -> {
+        this.frames++;
+        this.swap();
+    };
+    private final libvlc_video_makeCurrent_cb makeCurrentCallback = (opaque, enter) -> this.makeCurrent(enter != 0) ? 1 : 0;
+    private final libvlc_video_getProcAddress_cb getProcAddressCallback = (opaque, name) -> this.getProcAddress(name);
+    private final libvlc_video_frameMetadata_cb metadataCallback = (opaque, type, metadata) -> {
+        if (type == libvlc_video_metadata_type_t.libvlc_video_metadata_frame_hdr10.intValue() && metadata != null) {
+            this.hdr10(new libvlc_video_frame_hdr10_metadata_t(metadata));
+        }
+    };
+
+    private volatile int width;
+    private volatile int height;
+    private volatile long frames;
+
+    // GIVEN BY LIBVLC ON SET WINDOW, VALID UNTIL THE NEXT ONE
+    private libvlc_video_output_resize_cb resizeReport;
+    private Pointer reportOpaque;
+
+    /**
+     * @return true if the loaded LibVLC supports render outputs
+     */
+    public static boolean isSupported() {
+        return VideoLan4J.getVideoLanVersion().atLeast(MIN_VERSION);
+    }
+
+    /**
+     * Sets the output callbacks of the media player, replacing any memory callbacks
+     * @param player media player instance
+     * @param engine rendering engine of the context, OpenGL or GLES2
+     * @throws IllegalArgumentException if the engine is not OpenGL or GLES2
+     * @throws UnsupportedOperationException if the loaded LibVLC is older than 4.0.0 or rejects the engine
+     */
+    public void attach(libvlc_media_player_t player, libvlc_video_engine_t engine) {
+        if (engine != libvlc_video_engine_t.libvlc_video_engine_opengl && engine != libvlc_video_engine_t.libvlc_video_engine_gles2)
+            throw new IllegalArgumentException("Render outputs only support OpenGL and GLES2 engines, got " + engine);
+        Version version = VideoLan4J.getVideoLanVersion();
+        if (!version.atLeast(MIN_VERSION))
+            throw new UnsupportedOperationException("Render outputs require LibVLC " + MIN_VERSION.version() + " or later, loaded " + version.version());
+
+        // SELECT PLANE IS ONLY USED BY DIRECT3D11
+        if (LibVlc4.libvlc_video_set_output_callbacks(player, engine.intValue(), setupCallback, cleanupCallback, windowCallback,
+                updateOutputCallback, swapCallback, makeCurrentCallback, getProcAddressCallback, metadataCallback, null, null) == 0)
+            throw new UnsupportedOperationException("LibVLC " + version.version() + " does not support the " + engine + " engine");
+        VideoLan4J.LOGGER.debug(IT, "Attached {} render output on LibVLC {}", engine, version.version());
+    }
+
+    /**
+     * Reports the size of the rendering area, like the window or the widget showing the video. Can be called
+     * from any thread, it does nothing until LibVLC gives the report callback
+     *
+     * @param width area width in pixels
+     * @param height area height in pixels
+     * @return true if LibVLC got the size
+     */
+    public synchronized boolean reportSize(int width, int height) {
+        if (resizeReport == null) return false;
+        resizeReport.invoke(reportOpaque, width, height);
+        return true;
+    }
+
+    /**
+     * @return last output width given by LibVLC, 0 if there is none yet
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return last output height given by LibVLC, 0 if there is none yet
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return frames rendered by LibVLC
+     */
+    public long frames() {
+        return frames;
+    }
+
+    /**
+     * Creates the resources of the output, called once before any other method
+     * @return true on success
+     */
+    protected abstract boolean setup();
+
+    /**
+     * Releases the resources of the output
+     */
+    protected abstract void cleanup();
+
+    /**
+     * Resizes the surface LibVLC renders into, called on video size changes
+     * @param width video pixel width
+     * @param height video pixel height
+     * @return true on success
+     */
+    protected abstract boolean resize(int width, int height);
+
+    /**
+     * Called after LibVLC finished drawing a frame, the surface holds a new frame
+     */
+    protected abstract void swap();
+
+    /**
+     * Makes the rendering context current on the calling thread, or releases it
+     * @param enter true to make it current, false to release it
+     * @return true on success
+     */
+    protected abstract boolean makeCurrent(boolean enter);
+
+    /**
+     * Looks up a rendering function of the context, like <code>glfwGetProcAddress</code>
+     * @param name function name
+     * @return function pointer, or null if missing
+     */
+    protected abstract Pointer getProcAddress(String name);
+
+    /**
+     * Receives the HDR10 metadata of the next frames, does nothing by default
+     * @param metadata mastering display and content light levels
+     */
+    protected void hdr10(libvlc_video_frame_hdr10_metadata_t metadata) {
+
+    }
+}
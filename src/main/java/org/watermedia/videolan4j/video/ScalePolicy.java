@@ -0,0 +1,44 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * Picks the size of the decoded frames on the video format negotiation, letting LibVLC do the downscale
+ * before the frames reach Java.
+ * @see FormatNegotiator#setScalePolicy(ScalePolicy)
+ */
+@FunctionalInterface
+public interface ScalePolicy {
+    /**
+     * Keeps the source size
+     */
+    ScalePolicy SOURCE = (width, height, sarNum, sarDen) -> new int[] { width, height };
+
+    /**
+     * Computes the frame size
+     * @param width source pixel width
+     * @param height source pixel height
+     * @param sarNum source sample aspect ratio numerator
+     * @param sarDen source sample aspect ratio denominator
+     * @return frame width and height
+     */
+    int[] scale(int width, int height, int sarNum, int sarDen);
+
+    /**
+     * Fits the frames inside the given display size, keeping the display aspect ratio with square pixels.
+     * Frames are never upscaled on any axis and sizes are rounded to even numbers for subsampled chromas
+     *
+     * @param maxWidth display width
+     * @param maxHeight display height
+     * @return fitting scale policy
+     */
+    static ScalePolicy fit(int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0) throw new IllegalArgumentException("Invalid display size " + maxWidth + "x" + maxHeight);
+        return (width, height, sarNum, sarDen) -> {
+            double displayWidth = sarNum > 0 && sarDen > 0 ? (double) width * sarNum / sarDen : width;
+            double factor = Math.min(Math.min(maxWidth / displayWidth, (double) maxHeight / height), Math.min(width / displayWidth, 1));
+            // EVEN SIZES, SUBSAMPLED CHROMAS CANNOT SPLIT A PIXEL PAIR
+            int w = Math.max(2, (int) Math.round(displayWidth * factor / 2) * 2);
+            int h = Math.max(2, (int) Math.round(height * factor / 2) * 2);
+            return new int[] { w, h };
+        };
+    }
+}
@@ -0,0 +1,330 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.watermedia.videolan4j.VideoLan4J;
+import org.watermedia.videolan4j.binding.internal.libvlc_display_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_lock_callback_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_media_player_t;
+import org.watermedia.videolan4j.binding.internal.libvlc_unlock_callback_t;
+import org.watermedia.videolan4j.binding.lib.LibVlc;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Staging ring between the LibVLC video callbacks and a texture upload thread, every displayed frame reaches
+ * the consumer in display order.
+ * <p>LibVLC writes into a free frame on lock, display queues it tagged with its {@link FrameBuffer#sequence()} and
+ * the consumer drains the queue with {@link #poll()}. A polled frame is kept away from LibVLC until it is released,
+ * optionally with an {@link UploadFence} holding it until the graphics API is done reading it, so the decoder never
+ * writes into a frame being uploaded</p>
+ * <p>When all the frames are queued, uploading or fenced the ring is full: LibVLC writes into a drain frame that is
+ * dropped and a stall is counted. The callbacks never wait for the consumer</p>
+ */
+public class StagingRing implements FrameOutput {
+    private static final int CONSUMER = FrameSlots.LIBVLC_MASK + 1; // QUEUED, UPLOADING OR FENCED
+
+    private final FrameBuffer[] frames;
+    private final UploadFence[] fences;
+    private final Pointer[] ids;
+    private final Pointer drainId;
+    private final FrameSlots states;
+    private FrameBuffer drain;
+    private volatile FrameLayout layout;
+    private long sequence;
+
+    // DISPLAY ORDER QUEUE, WRITTEN BY DISPLAY AND DRAINED BY THE CONSUMER
+    private final FrameBuffer[] queue;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    // FRAMES REPLACED BY A REFORMAT WHILE THE CONSUMER HELD THEM, NULL FENCE WHILE NOT RELEASED YET
+    private final ArrayList<FrameBuffer> retired = new ArrayList<>();
+    private final ArrayList<UploadFence> retiredFences = new ArrayList<>();
+    private volatile long completed;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+
+    private final libvlc_lock_callback_t lockCallback = this::lock;
+    private final libvlc_unlock_callback_t unlockCallback = this::unlock;
+    private final libvlc_display_callback_t displayCallback = this::display;
+    private final IntPredicate available = this::isAvailable;
+
+    /**
+     * Creates a ring without frames, those are allocated on {@link #reformat(FrameLayout)}
+     * @param slots amount of frames, should cover the frames LibVLC holds plus the frames queued and in flight
+     */
+    public StagingRing(int slots) {
+        if (slots < 2) throw new IllegalArgumentException("Slots must be at least 2, got " + slots);
+        this.frames = new FrameBuffer[slots];
+        this.fences = new UploadFence[slots];
+        this.queue = new FrameBuffer[slots];
+        this.ids = new Pointer[slots];
+        this.states = new FrameSlots(slots);
+        for (int i = 0; i < slots; i++) {
+            ids[i] = new Pointer(i + 1);
+        }
+        this.drainId = new Pointer(slots + 1);
+    }
+
+    /**
+     * Sets the video callbacks of the media player.
+     * Single plane layouts also set the video format, otherwise the format callbacks are required
+     * @param player media player instance
+     */
+    @Override
+    public void attach(libvlc_media_player_t player) {
+        LibVlc.libvlc_video_set_callbacks(player, lockCallback, unlockCallback, displayCallback, null);
+        FrameLayout layout = this.layout;
+        if (layout != null && layout.planes() == 1) {
+            LibVlc.libvlc_video_set_format(player, layout.chroma(), layout.width(), layout.height(), layout.pitch(0));
+        }
+    }
+
+    public libvlc_lock_callback_t lockCallback() {
+        return lockCallback;
+    }
+
+    public libvlc_unlock_callback_t unlockCallback() {
+        return unlockCallback;
+    }
+
+    public libvlc_display_callback_t displayCallback() {
+        return displayCallback;
+    }
+
+    /**
+     * Switches all the frames to a new layout. Queued frames the consumer did not poll yet are dropped,
+     * frames it holds or are still fenced are replaced and released once it is done with them
+     */
+    @Override
+    public synchronized boolean reformat(FrameLayout layout) {
+        // NO DISPLAY CAN RUN HERE, THE QUEUE IS STABLE
+        long tail = this.tail.get();
+        for (; head < tail; head++) {
+            int slot = this.indexOf(queue[(int) (head % queue.length)]);
+            if (slot != -1) states.set(slot, FrameSlots.FREE);
+        }
+
+        boolean result = true;
+        for (int i = 0; i < frames.length; i++) {
+            FrameBuffer frame = frames[i];
+            if (frame != null && (states.get(i) & CONSUMER) != 0) {
+                retired.add(frame);
+                retiredFences.add(fences[i]);
+                fences[i] = null;
+                frame = null;
+            }
+            states.set(i, FrameSlots.FREE);
+            result &= (frames[i] = FrameBuffer.reuse(frame, layout)) != null;
+        }
+        result &= (drain = FrameBuffer.reuse(drain, layout)) != null;
+        this.layout = layout;
+        return result;
+    }
+
+    /**
+     * Marks all the frames as no longer owned by LibVLC, frames owned by the consumer stay owned
+     */
+    @Override
+    public void cleanup() {
+        dropped.add(states.cleanup());
+    }
+
+    @Override
+    public FrameLayout layout() {
+        return layout;
+    }
+
+    @Override
+    public int slots() {
+        return frames.length;
+    }
+
+    /**
+     * Gets the next displayed frame in display order, the frame is owned by the consumer until released.
+     * Also releases the frames whose fences got signaled, call it from the thread owning the graphics context
+     *
+     * @return oldest queued frame, or null if there is none
+     */
+    public synchronized FrameBuffer poll() {
+        this.reclaim();
+        if (head == tail.get()) return null;
+        return queue[(int) (head++ % queue.length)];
+    }
+
+    /**
+     * Gives back a polled frame, LibVLC can write on it again
+     * @param frame frame returned by {@link #poll()}
+     */
+    public void release(FrameBuffer frame) {
+        this.release(frame, null);
+    }
+
+    /**
+     * Gives back a polled frame once the fence is signaled, the fence is checked on each {@link #poll()}
+     * @param frame frame returned by {@link #poll()}
+     * @param fence fence of the upload reading the frame, null if the frame is no longer read
+     * @throws IllegalStateException if the frame is not held by the consumer
+     */
+    public synchronized void release(FrameBuffer frame, UploadFence fence) {
+        boolean done = fence == null || fence.isSignaled();
+        if (done && fence != null) fence.close();
+
+        int slot = this.indexOf(frame);
+        if (slot != -1 && (states.get(slot) & CONSUMER) != 0 && fences[slot] == null) {
+            if (done) {
+                this.complete(slot);
+            } else {
+                fences[slot] = fence;
+            }
+            return;
+        }
+
+        int index = retired.indexOf(frame);
+        if (index == -1 || retiredFences.get(index) != null) throw new IllegalStateException("Frame is not held by the consumer");
+        if (done) {
+            this.completed(frame);
+            retired.remove(index);
+            retiredFences.remove(index);
+            frame.release();
+        } else {
+            retiredFences.set(index, fence);
+        }
+    }
+
+    /**
+     * @return displayed frames not polled yet
+     */
+    public synchronized int pending() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * @return highest sequence of the frames given back by the consumer with their fences signaled
+     */
+    public long completed() {
+        return completed;
+    }
+
+    /**
+     * @return frames queued for the consumer
+     */
+    public long published() {
+        return published.sum();
+    }
+
+    /**
+     * @return frames LibVLC decoded but never got queued, because the ring was full or it was never displayed
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return times LibVLC found the ring full, every frame was queued, held or fenced by the consumer
+     */
+    public long stalls() {
+        return stalls.sum();
+    }
+
+    /**
+     * Releases all the frames and closes the pending fences, only call it once the player is stopped
+     * and the consumer is done
+     */
+    public synchronized void free() {
+        for (int i = 0; i < frames.length; i++) {
+            if (fences[i] != null) fences[i].close();
+            if (frames[i] != null) frames[i].release();
+            fences[i] = null;
+        }
+        for (int i = 0; i < retired.size(); i++) {
+            if (retiredFences.get(i) != null) retiredFences.get(i).close();
+            retired.get(i).release();
+        }
+        retired.clear();
+        retiredFences.clear();
+        if (drain != null) drain.release();
+    }
+
+    protected Pointer lock(Pointer opaque, PointerByReference planes) {
+        VideoLan4J.checkClassLoader(StagingRing.class.getClassLoader());
+        int slot = states.lock(available);
+        if (slot != -1) {
+            frames[slot].lock(planes);
+            return ids[slot];
+        }
+        stalls.increment();
+        dropped.increment();
+        drain.lock(planes);
+        return drainId;
+    }
+
+    protected void unlock(Pointer opaque, Pointer picture, Pointer plane) {
+        if (states.unlock(slot(picture))) dropped.increment();
+    }
+
+    protected void display(Pointer opaque, Pointer picture) {
+        // LIBVLC OWNS THE FRAME UNTIL IT IS QUEUED, THEN THE CONSUMER KEEPS IT AWAY FROM LOCK
+        int slot = slot(picture);
+        if (!states.display(slot)) return;
+        FrameBuffer frame = frames[slot];
+        frame.stamp(++sequence, -1, -1);
+        states.hold(slot, CONSUMER);
+
+        // AT MOST ONE ENTRY PER FRAME, THE QUEUE NEVER OVERFLOWS
+        long tail = this.tail.get();
+        queue[(int) (tail % queue.length)] = frame;
+        this.tail.lazySet(tail + 1);
+        published.increment();
+        states.displayed(slot);
+    }
+
+    private void reclaim() {
+        for (int i = 0; i < frames.length; i++) {
+            UploadFence fence = fences[i];
+            if (fence == null || !fence.isSignaled()) continue;
+            fence.close();
+            fences[i] = null;
+            this.complete(i);
+        }
+        for (int i = retired.size() - 1; i >= 0; i--) {
+            UploadFence fence = retiredFences.get(i);
+            if (fence == null || !fence.isSignaled()) continue;
+            fence.close();
+            this.completed(retired.get(i));
+            retired.remove(i).release();
+            retiredFences.remove(i);
+        }
+    }
+
+    private void complete(int slot) {
+        this.completed(frames[slot]);
+        states.unhold(slot, CONSUMER);
+    }
+
+    private void completed(FrameBuffer frame) {
+        if (frame.sequence() > completed) completed = frame.sequence();
+    }
+
+    private boolean isAvailable(int slot) {
+        return frames[slot] != null;
+    }
+
+    private int indexOf(FrameBuffer frame) {
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] == frame) return i;
+        }
+        return -1;
+    }
+
+    private int slot(Pointer picture) {
+        long id = Pointer.nativeValue(picture);
+        return id >= 1 && id <= frames.length ? (int) id - 1 : -1;
+    }
+}
@@ -0,0 +1,22 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * Completion signal of an upload made from a {@link StagingRing} frame, like an OpenGL sync object
+ * created with <code>glFenceSync</code> right after <code>glTexSubImage2D</code>.
+ * <p>Only checked from the thread calling {@link StagingRing#poll()}, so it can query the graphics API</p>
+ */
+@FunctionalInterface
+public interface UploadFence {
+
+    /**
+     * @return true once the graphics API is done reading the frame
+     */
+    boolean isSignaled();
+
+    /**
+     * Deletes the fence, called once after it gets signaled or when the ring is freed
+     */
+    default void close() {
+
+    }
+}
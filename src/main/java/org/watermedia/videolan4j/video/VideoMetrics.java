@@ -0,0 +1,72 @@
+package org.watermedia.videolan4j.video;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing of the video callbacks of one player: lock hold time, unlock to display gap, display to consumer
+ * pickup latency and frame rate. Set it on a {@link FrameExchanger} or a {@link FrameFanout}.
+ * <p>Durations come from {@link System#nanoTime()} and go into fixed bucket histograms, recording does not
+ * allocate nor block the LibVLC threads</p>
+ */
+public class VideoMetrics {
+    private final Histogram lockTime = new Histogram();
+    private final Histogram displayGap = new Histogram();
+    private final Histogram pickupLatency = new Histogram();
+    private final Histogram frameInterval = new Histogram();
+    private final LongAdder frames = new LongAdder();
+    private long lastDisplay; // DISPLAY THREAD ONLY
+
+    // PREVIOUS SNAPSHOT
+    private long lastFrames;
+    private long lastSnapshot = System.nanoTime();
+
+    /**
+     * Takes a snapshot of the metrics, the frame rate is measured since the previous snapshot
+     * @return metrics snapshot
+     */
+    public synchronized VideoStats snapshot() {
+        long now = System.nanoTime();
+        long frames = this.frames.sum();
+        double fps = now > lastSnapshot ? (frames - lastFrames) * 1e9 / (now - lastSnapshot) : 0;
+        lastFrames = frames;
+        lastSnapshot = now;
+        return new VideoStats(lockTime.snapshot(), displayGap.snapshot(), pickupLatency.snapshot(), frameInterval.snapshot(), frames, fps);
+    }
+
+    /**
+     * Clears the histograms, the frame counter is kept
+     */
+    public void reset() {
+        lockTime.reset();
+        displayGap.reset();
+        pickupLatency.reset();
+        frameInterval.reset();
+    }
+
+    void locked(FrameBuffer frame) {
+        long now = System.nanoTime();
+        frame.lockNanos = now;
+        frame.unlockNanos = now;
+        frame.displayNanos = now;
+    }
+
+    void unlocked(FrameBuffer frame) {
+        long now = System.nanoTime();
+        lockTime.record(now - frame.lockNanos);
+        if (frame.displayNanos - frame.lockNanos > 0) displayGap.record(now - frame.displayNanos);
+        frame.unlockNanos = now;
+    }
+
+    void displayed(FrameBuffer frame) {
+        long now = System.nanoTime();
+        if (frame.unlockNanos - frame.lockNanos > 0) displayGap.record(now - frame.unlockNanos);
+        frame.displayNanos = now;
+        if (lastDisplay != 0) frameInterval.record(now - lastDisplay);
+        lastDisplay = now;
+        frames.increment();
+    }
+
+    void picked(FrameBuffer frame) {
+        pickupLatency.record(System.nanoTime() - frame.displayNanos);
+    }
+}
@@ -0,0 +1,69 @@
+package org.watermedia.videolan4j.video;
+
+/**
+ * Snapshot of the {@link VideoMetrics} of one player
+ */
+public final class VideoStats {
+    private final HistogramStats lockTime;
+    private final HistogramStats displayGap;
+    private final HistogramStats pickupLatency;
+    private final HistogramStats frameInterval;
+    private final long frames;
+    private final double fps;
+
+    VideoStats(HistogramStats lockTime, HistogramStats displayGap, HistogramStats pickupLatency, HistogramStats frameInterval, long frames, double fps) {
+        this.lockTime = lockTime;
+        this.displayGap = displayGap;
+        this.pickupLatency = pickupLatency;
+        this.frameInterval = frameInterval;
+        this.frames = frames;
+        this.fps = fps;
+    }
+
+    /**
+     * @return time between lock and unlock, how long LibVLC holds a frame to decode into it
+     */
+    public HistogramStats lockTime() {
+        return lockTime;
+    }
+
+    /**
+     * @return time between unlock and display, in whatever order LibVLC calls them
+     */
+    public HistogramStats displayGap() {
+        return displayGap;
+    }
+
+    /**
+     * @return time between display and the consumer picking the frame up
+     */
+    public HistogramStats pickupLatency() {
+        return pickupLatency;
+    }
+
+    /**
+     * @return time between two displays
+     */
+    public HistogramStats frameInterval() {
+        return frameInterval;
+    }
+
+    /**
+     * @return displayed frames
+     */
+    public long frames() {
+        return frames;
+    }
+
+    /**
+     * @return displayed frames per second since the previous snapshot
+     */
+    public double fps() {
+        return fps;
+    }
+
+    @Override
+    public String toString() {
+        return "VideoStats{frames=" + frames + ", fps=" + String.format("%.2f", fps) + ", lock=" + lockTime + ", gap=" + displayGap + ", pickup=" + pickupLatency + ", interval=" + frameInterval + "}";
+    }
+}
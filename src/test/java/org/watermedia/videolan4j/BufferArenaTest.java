@@ -0,0 +1,44 @@
+package org.watermedia.videolan4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferArenaTest {
+    @Test
+    public void testSlicesShareSlabs() {
+        long live = ByteBufferFactory.stats().liveBytes();
+        BufferArena arena = new BufferArena(4096);
+        try {
+            ByteBuffer first = arena.alloc(100);
+            ByteBuffer second = arena.alloc(100, 64);
+            assertEquals(100, first.capacity());
+            assertTrue(ByteBufferFactory.isAligned(ByteBufferFactory.address(second), 64));
+            assertTrue(ByteBufferFactory.address(second) >= ByteBufferFactory.address(first) + 100);
+            assertEquals(live + 4096, ByteBufferFactory.stats().liveBytes());
+
+            // A SLICE NOT FITTING OPENS A NEW SLAB, A BIG ONE GETS ITS OWN BUFFER
+            arena.alloc(2000);
+            arena.alloc(2000);
+            assertEquals(live + 2 * 4096, ByteBufferFactory.stats().liveBytes());
+            assertEquals(3000, arena.alloc(3000).capacity());
+            assertEquals(live + 2 * 4096 + 3000, ByteBufferFactory.stats().liveBytes());
+            assertEquals(100 + 100 + 2000 + 2000 + 3000, arena.allocated());
+        } finally {
+            arena.close();
+        }
+        assertEquals(live, ByteBufferFactory.stats().liveBytes());
+    }
+
+    @Test
+    public void testClosedArena() {
+        BufferArena arena = new BufferArena();
+        arena.alloc(16);
+        arena.close();
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> arena.alloc(16));
+        assertThrows(IllegalArgumentException.class, () -> new BufferArena(0));
+    }
+}
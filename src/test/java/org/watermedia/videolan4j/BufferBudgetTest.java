@@ -0,0 +1,106 @@
+package org.watermedia.videolan4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferBudgetTest {
+    private static final int SIZE = 64 * 1024;
+
+    private static void limit(BudgetPolicy policy, long timeoutMillis) {
+        // LIVE BUFFERS OF OTHER TESTS STAY ON THE BUDGET
+        ByteBufferFactory.setBudget(ByteBufferFactory.stats().liveBytes() + SIZE, policy, timeoutMillis);
+    }
+
+    private static void unlimit() {
+        ByteBufferFactory.setBudget(Long.MAX_VALUE, BudgetPolicy.FAIL_FAST, 0);
+    }
+
+    @Test
+    public void testFailFast() {
+        limit(BudgetPolicy.FAIL_FAST, 0);
+        try {
+            long rejections = ByteBufferFactory.stats().rejections();
+            ByteBuffer buffer = ByteBufferFactory.alloc(SIZE);
+            assertThrows(OutOfMemoryError.class, () -> ByteBufferFactory.alloc(1));
+            assertNull(ByteBufferFactory.tryAlloc(1));
+            assertEquals(rejections + 2, ByteBufferFactory.stats().rejections());
+
+            ByteBufferFactory.dealloc(buffer);
+            ByteBufferFactory.dealloc(buffer); // NOT LIVE, RELEASES NOTHING
+            buffer = ByteBufferFactory.alloc(SIZE);
+            assertNull(ByteBufferFactory.tryAlloc(1), "double dealloc released the budget twice");
+            ByteBufferFactory.dealloc(buffer);
+        } finally {
+            unlimit();
+        }
+    }
+
+    @Test
+    public void testTimed() {
+        limit(BudgetPolicy.TIMED, 50);
+        try {
+            ByteBuffer buffer = ByteBufferFactory.alloc(SIZE);
+            long start = System.nanoTime();
+            assertNull(ByteBufferFactory.tryAlloc(1));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40), "did not wait for the timeout");
+            assertThrows(OutOfMemoryError.class, () -> ByteBufferFactory.alloc(SIZE * 2), "bigger than the budget");
+            ByteBufferFactory.dealloc(buffer);
+        } finally {
+            unlimit();
+        }
+    }
+
+    @Test
+    public void testBlockUntilReleased() throws InterruptedException {
+        limit(BudgetPolicy.BLOCK, 0);
+        try {
+            ByteBuffer buffer = ByteBufferFactory.alloc(SIZE);
+            AtomicReference<ByteBuffer> result = new AtomicReference<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread waiter = new Thread(() -> {
+                started.countDown();
+                result.set(ByteBufferFactory.alloc(SIZE));
+            });
+            waiter.start();
+            started.await();
+            Thread.sleep(50);
+            assertNull(result.get(), "allocated over the budget");
+
+            ByteBufferFactory.dealloc(buffer);
+            waiter.join(5000);
+            assertNotNull(result.get(), "not woken up by the release");
+            ByteBufferFactory.dealloc(result.get());
+        } finally {
+            unlimit();
+        }
+    }
+
+    @Test
+    public void testQuietAllocatorFailure() {
+        long live = ByteBufferFactory.stats().liveBytes();
+        ByteBufferFactory.BUFFER_ALLOCATOR = (size, alignment) -> {
+            throw new IllegalStateException("Allocator failure");
+        };
+        try {
+            assertNull(ByteBufferFactory.tryAlloc(SIZE));
+            assertThrows(IllegalStateException.class, () -> ByteBufferFactory.alloc(SIZE));
+        } finally {
+            ByteBufferFactory.BUFFER_ALLOCATOR = ByteBufferFactory::alloc1;
+        }
+
+        // THE FAILED ALLOCATIONS GAVE THEIR RESERVATION BACK
+        limit(BudgetPolicy.FAIL_FAST, 0);
+        try {
+            assertEquals(live, ByteBufferFactory.stats().liveBytes());
+            ByteBufferFactory.dealloc(ByteBufferFactory.alloc(SIZE));
+        } finally {
+            unlimit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.watermedia.videolan4j;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferPoolTest {
+    @Test
+    public void testSmallSizesShareTheFirstClass() {
+        assertEquals(0, BufferPool.sizeClass(1));
+        assertEquals(0, BufferPool.sizeClass(4096));
+        assertEquals(4096, BufferPool.classSize(0));
+    }
+
+    @Test
+    public void testClassEdges() {
+        assertEquals(1, BufferPool.sizeClass(4097));
+        assertEquals(1, BufferPool.sizeClass(5120));
+        assertEquals(2, BufferPool.sizeClass(5121));
+        assertEquals(4, BufferPool.sizeClass(8192));
+        assertEquals(5, BufferPool.sizeClass(8193));
+        assertEquals(BufferPool.CLASSES - 1, BufferPool.sizeClass(1 << 30));
+    }
+
+    @Test
+    public void testClassSizeRoundTrip() {
+        for (int i = 0; i < BufferPool.CLASSES; i++) {
+            int size = BufferPool.classSize(i);
+            assertEquals(i, BufferPool.sizeClass(size), "class of " + size);
+            if (i > 0) assertEquals(i, BufferPool.sizeClass(BufferPool.classSize(i - 1) + 1), "class above " + BufferPool.classSize(i - 1));
+        }
+    }
+
+    @Test
+    public void testClassWasteIsBounded() {
+        // A QUARTER OF THE POWER OF TWO PER STEP, THE BUFFER IS AT MOST 25% BIGGER THAN REQUESTED
+        for (int size = 4097; size < (1 << 24); size += 997) {
+            int capacity = BufferPool.classSize(BufferPool.sizeClass(size));
+            assertTrue(capacity >= size, "class of " + size + " is too small");
+            assertTrue(capacity - size <= size / 4, "class of " + size + " wastes " + (capacity - size));
+        }
+    }
+}
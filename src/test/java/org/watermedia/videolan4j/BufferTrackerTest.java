@@ -0,0 +1,79 @@
+package org.watermedia.videolan4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferTrackerTest {
+    @Test
+    public void testCountsBySizeClass() {
+        BufferStats before = ByteBufferFactory.stats();
+        int index = BufferPool.sizeClass(10000);
+        ByteBuffer buffer = ByteBufferFactory.alloc(10000);
+        BufferStats during = ByteBufferFactory.stats();
+        assertEquals(before.liveBytes() + 10000, during.liveBytes());
+        assertTrue(during.peakBytes() >= during.liveBytes());
+
+        ByteBufferFactory.dealloc(buffer);
+        ByteBufferFactory.dealloc(buffer);
+        BufferStats after = ByteBufferFactory.stats();
+        assertEquals(before.liveBytes(), after.liveBytes());
+        assertEquals(before.allocations(index) + 1, after.allocations(index));
+        assertEquals(before.frees(index) + 1, after.frees(index), "freed twice");
+    }
+
+    @Test
+    public void testForeignBuffersAreNotCounted() {
+        ByteBuffer foreign = ByteBuffer.allocateDirect(4096);
+        assertFalse(BufferTracker.deallocated(foreign));
+    }
+
+    @Test
+    public void testManyLiveBuffers() {
+        // ENOUGH TO GROW EVERY STRIPE, FREED IN RANDOM ORDER
+        long live = ByteBufferFactory.stats().liveBytes();
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            buffers.add(ByteBufferFactory.alloc(16 + i % 64));
+        }
+        Collections.shuffle(buffers, new Random(42));
+        for (int i = 0; i < buffers.size(); i += 2) {
+            assertTrue(BufferTracker.deallocated(buffers.get(i)), "buffer " + i + " was lost");
+            ByteBufferFactory.BUFFER_DEALLOCATOR.accept(buffers.get(i));
+            BufferBudget.release(buffers.get(i).capacity());
+        }
+        for (int i = 0; i < buffers.size(); i += 2) {
+            assertFalse(BufferTracker.deallocated(buffers.get(i)), "buffer " + i + " is still live");
+        }
+        for (int i = 1; i < buffers.size(); i += 2) {
+            ByteBufferFactory.dealloc(buffers.get(i));
+        }
+        assertEquals(live, ByteBufferFactory.stats().liveBytes());
+    }
+
+    @Test
+    public void testLeakIsReclaimed() throws InterruptedException {
+        ByteBufferFactory.setLeakTracking(true);
+        try {
+            BufferStats before = ByteBufferFactory.stats();
+            ByteBufferFactory.alloc(1 << 20);
+            BufferStats after = before;
+            for (int i = 0; i < 100 && after.leaks() == before.leaks(); i++) {
+                System.gc();
+                Thread.sleep(20);
+                after = ByteBufferFactory.stats();
+            }
+            assertEquals(before.leaks() + 1, after.leaks(), "leak not reported");
+            assertEquals(before.leakedBytes() + (1 << 20), after.leakedBytes());
+            assertEquals(before.liveBytes(), after.liveBytes(), "leaked bytes are still live");
+        } finally {
+            ByteBufferFactory.setLeakTracking(false);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.watermedia.videolan4j;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteBufferFactoryTest {
+    @Test
+    public void testCustomAlignment() {
+        for (int alignment = 1; alignment <= 8192; alignment <<= 1) {
+            ByteBuffer buffer = ByteBufferFactory.alloc(1000, alignment);
+            assertTrue(ByteBufferFactory.isAligned(ByteBufferFactory.address(buffer), alignment), "not aligned to " + alignment);
+            assertEquals(1000, buffer.capacity());
+            assertEquals(ByteOrder.nativeOrder(), buffer.order());
+            ByteBufferFactory.dealloc(buffer);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferFactory.alloc(16, 48));
+        assertThrows(IllegalArgumentException.class, () -> ByteBufferFactory.alloc(16, 0));
+    }
+
+    @Test
+    public void testSizeOnlyAllocatorIsAligned() {
+        VideoLan4J.setBufferAllocator(ByteBuffer::allocateDirect);
+        try {
+            for (int alignment: new int[] { VideoLan4J.LIBVLC_BUFFER_ALIGNMENT, 64, 4096 }) {
+                ByteBuffer buffer = ByteBufferFactory.alloc(1000, alignment);
+                assertTrue(ByteBufferFactory.isAligned(ByteBufferFactory.address(buffer), alignment), "not aligned to " + alignment);
+                assertEquals(1000, buffer.capacity());
+                ByteBufferFactory.dealloc(buffer);
+            }
+        } finally {
+            ByteBufferFactory.BUFFER_ALLOCATOR = ByteBufferFactory::alloc1;
+        }
+    }
+
+    @Test
+    public void testPinnedIsPageAligned() {
+        // PINNING MAY FAIL ON THIS MACHINE, THE BUFFERS MUST STAY USABLE AND PAGE ALIGNED ANYWAY
+        for (int size: new int[] { 1000, ByteBufferFactory.PAGE_SIZE, 3 * 1024 * 1024 }) {
+            ByteBuffer buffer = ByteBufferFactory.allocPinned(size);
+            assertTrue(ByteBufferFactory.isAligned(ByteBufferFactory.address(buffer), ByteBufferFactory.PAGE_SIZE), "not page aligned " + size);
+            assertEquals(size, buffer.capacity());
+            buffer.put(size - 1, (byte) 1);
+            ByteBufferFactory.deallocPinned(buffer);
+        }
+    }
+
+    @Test
+    public void testDeallocReleasesNativeMemory() {
+        int size = 8 * 1024 * 1024;
+        long before = directMemoryUsed();
+        ByteBuffer buffer = ByteBufferFactory.alloc1(size);
+        assertTrue(directMemoryUsed() - before >= size);
+
+        // THE SLICE IS RELEASED THROUGH ITS ROOT BUFFER, NO GC NEEDED
+        ByteBufferFactory.dealloc1(buffer);
+        assertTrue(directMemoryUsed() - before < size, "native memory was not released");
+
+        // RELEASING TWICE OR RELEASING HEAP BUFFERS IS IGNORED
+        ByteBufferFactory.dealloc1(buffer);
+        ByteBufferFactory.dealloc1(ByteBuffer.allocate(16));
+    }
+
+    @Test
+    public void testAddressMatchesJna() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        ByteBuffer slice = ((ByteBuffer) buffer.duplicate().position(100)).slice();
+        ByteBuffer aligned = ByteBufferFactory.alloc1(1000, 64);
+        for (ByteBuffer b: new ByteBuffer[] { buffer, slice, aligned }) {
+            assertEquals(Pointer.nativeValue(Native.getDirectBufferPointer(b)), ByteBufferFactory.address(b));
+        }
+        assertEquals(ByteBufferFactory.address(buffer) + 100, ByteBufferFactory.address(slice));
+        ByteBufferFactory.dealloc1(aligned);
+    }
+
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool: ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) return pool.getMemoryUsed();
+        }
+        throw new IllegalStateException("No direct buffer pool");
+    }
+}
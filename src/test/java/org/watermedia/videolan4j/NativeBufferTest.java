@@ -0,0 +1,61 @@
+package org.watermedia.videolan4j;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeBufferTest {
+    @Test
+    public void testPointerView() {
+        NativeBuffer buffer = NativeBuffer.alloc(256, 64);
+        try {
+            assertEquals(ByteBufferFactory.address(buffer.buffer()), buffer.address());
+            assertEquals(buffer.address(), Pointer.nativeValue(buffer.pointer()));
+            assertSame(buffer.pointer(), buffer.pointer());
+            assertEquals(256, buffer.capacity());
+
+            // WRITES THROUGH THE POINTER ARE SEEN BY THE BUFFER
+            buffer.pointer().setByte(10, (byte) 42);
+            assertEquals(42, buffer.buffer().get(10));
+        } finally {
+            buffer.release();
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void testPlanesTable() {
+        NativeBuffer[] planes = { NativeBuffer.alloc(64), NativeBuffer.alloc(32), NativeBuffer.alloc(32) };
+        PointerByReference table = new PointerByReference();
+        table.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        try {
+            NativeBuffer.write(table, planes);
+            for (int i = 0; i < planes.length; i++) {
+                assertEquals(planes[i].address(), Pointer.nativeValue(table.getPointer().getPointer((long) i * Native.POINTER_SIZE)));
+            }
+            planes[0].write(table, 3);
+            assertEquals(planes[0].address(), Pointer.nativeValue(table.getPointer().getPointer(3L * Native.POINTER_SIZE)));
+        } finally {
+            for (NativeBuffer plane: planes) plane.release();
+        }
+    }
+
+    @Test
+    public void testWrapDoesNotOwn() {
+        ByteBuffer direct = ByteBufferFactory.alloc(128);
+        NativeBuffer wrapped = NativeBuffer.wrap(direct);
+        wrapped.release();
+
+        // STILL LIVE ON THE FACTORY, THE WRAPPER DID NOT DEALLOCATE IT
+        long live = ByteBufferFactory.stats().liveBytes();
+        ByteBufferFactory.dealloc(direct);
+        assertEquals(live - 128, ByteBufferFactory.stats().liveBytes());
+        assertThrows(IllegalArgumentException.class, () -> NativeBuffer.wrap(ByteBuffer.allocate(16)));
+    }
+}
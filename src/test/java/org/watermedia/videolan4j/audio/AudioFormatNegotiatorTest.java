@@ -0,0 +1,66 @@
+package org.watermedia.videolan4j.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioFormatNegotiatorTest {
+    private static PointerByReference fourcc(String code) {
+        PointerByReference format = new PointerByReference();
+        format.setPointer(new Memory(4));
+        format.getPointer().write(0, code.getBytes(StandardCharsets.US_ASCII), 0, 4);
+        return format;
+    }
+
+    private static String code(PointerByReference format) {
+        return new String(format.getPointer().getByteArray(0, 4), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testRequestedFormat() {
+        AudioRing ring = new AudioRing(4096, 8);
+        AudioFormatNegotiator negotiator = new AudioFormatNegotiator(ring, SampleFormat.FL32, 48000, 2);
+        PointerByReference format = fourcc("S16N");
+        IntByReference rate = new IntByReference(44100), channels = new IntByReference(6);
+
+        assertEquals(0, negotiator.setup(null, format, rate, channels));
+        assertEquals("FL32", code(format));
+        assertEquals(48000, rate.getValue());
+        assertEquals(2, channels.getValue());
+        assertEquals(8, ring.frameSize());
+        assertEquals(48000, negotiator.rate());
+        assertEquals(2, negotiator.channels());
+    }
+
+    @Test
+    public void testSourceFormatIsKept() {
+        AudioRing ring = new AudioRing(4096, 8);
+        AudioFormatNegotiator negotiator = new AudioFormatNegotiator(ring, SampleFormat.S16N, 0, 0);
+        PointerByReference format = fourcc("FL32");
+        IntByReference rate = new IntByReference(44100), channels = new IntByReference(6);
+
+        assertEquals(0, negotiator.setup(null, format, rate, channels));
+        assertEquals("S16N", code(format));
+        assertEquals(44100, rate.getValue());
+        assertEquals(6, channels.getValue());
+        assertEquals(12, ring.frameSize());
+    }
+
+    @Test
+    public void testInvalidFormats() {
+        AudioRing ring = new AudioRing(4096, 8);
+        // A SOURCE WITH MORE CHANNELS THAN SUPPORTED IS REFUSED
+        AudioFormatNegotiator negotiator = new AudioFormatNegotiator(ring, SampleFormat.S16N, 0, 0);
+        assertEquals(-1, negotiator.setup(null, fourcc("S16N"), new IntByReference(48000), new IntByReference(AudioFormatNegotiator.MAX_CHANNELS + 1)));
+        assertEquals(0, negotiator.channels());
+
+        assertThrows(IllegalArgumentException.class, () -> new AudioFormatNegotiator(ring, null, 48000, 2));
+        assertThrows(IllegalArgumentException.class, () -> new AudioFormatNegotiator(ring, SampleFormat.S16N, AudioFormatNegotiator.MAX_RATE + 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new AudioFormatNegotiator(ring, SampleFormat.S16N, 48000, -1));
+    }
+}
@@ -0,0 +1,132 @@
+package org.watermedia.videolan4j.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioMixerTest {
+    private static final float DELTA = 1e-5f;
+
+    private static AudioRing ring() {
+        AudioRing ring = new AudioRing(4096, 16);
+        ring.setFrameSize(AudioMixer.CHANNELS * Float.BYTES);
+        return ring;
+    }
+
+    private static void write(AudioRing ring, int frames, float left, float right, long pts) {
+        Memory memory = new Memory((long) frames * AudioMixer.CHANNELS * Float.BYTES);
+        for (int i = 0; i < frames; i++) {
+            memory.setFloat(i * 8L, left);
+            memory.setFloat(i * 8L + 4, right);
+        }
+        assertTrue(ring.write(Pointer.nativeValue(memory), frames, pts));
+    }
+
+    @Test
+    public void testGainAndPan() {
+        AudioMixer mixer = new AudioMixer(48000, 4, null);
+        AudioRing ring = ring();
+        MixerSource source = mixer.add(ring);
+        write(ring, 8, 0.5f, 0.25f, 0);
+
+        float[] out = new float[8];
+        mixer.mix(out, 4);
+        float center = (float) Math.cos(Math.PI / 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0.5f * center, out[i * 2], DELTA);
+            assertEquals(0.25f * center, out[i * 2 + 1], DELTA);
+        }
+
+        source.setPan(-1);
+        source.setGain(2);
+        mixer.mix(out, 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1f, out[i * 2], DELTA);
+            assertEquals(0f, out[i * 2 + 1], DELTA);
+        }
+        assertEquals(0, source.underruns());
+        mixer.close();
+        ring.free();
+    }
+
+    @Test
+    public void testSourcesAreSummedAndClipped() {
+        AudioMixer mixer = new AudioMixer(48000, 2, null);
+        AudioRing first = ring(), second = ring();
+        mixer.add(first).setPan(-1);
+        mixer.add(second).setPan(1);
+        write(first, 2, 0.75f, 0, 0);
+        write(second, 2, 0, 0.5f, 0);
+
+        float[] out = new float[4];
+        mixer.setGain(2);
+        mixer.mix(out, 2);
+        assertEquals(1f, out[0], DELTA, "not clipped");
+        assertEquals(1f, out[1], DELTA);
+        assertEquals(2, mixer.sources());
+        mixer.close();
+        assertEquals(0, mixer.sources());
+        first.free();
+        second.free();
+    }
+
+    @Test
+    public void testUnderrunPlaysSilence() {
+        AudioMixer mixer = new AudioMixer(48000, 4, null);
+        AudioRing ring = ring();
+        MixerSource source = mixer.add(ring);
+        source.setPan(-1);
+        write(ring, 2, 0.5f, 0.5f, 0);
+
+        float[] out = new float[8];
+        mixer.mix(out, 4);
+        assertEquals(0.5f, out[0], DELTA);
+        assertEquals(0.5f, out[2], DELTA);
+        assertEquals(0f, out[4], DELTA);
+        assertEquals(0f, out[6], DELTA);
+        assertEquals(1, source.underruns());
+        mixer.close();
+        ring.free();
+    }
+
+    @Test
+    public void testSkipWhenAhead() {
+        AudioMixer mixer = new AudioMixer(48000, 1, null);
+        AudioRing ring = ring();
+        MixerSource source = mixer.add(ring);
+        source.setPan(-1);
+        for (int i = 0; i < 6; i++) {
+            write(ring, 1, i / 10f, 0, i);
+        }
+
+        // SIX CHUNKS QUEUED, TWO ARE SKIPPED TO KEEP FOUR
+        float[] out = new float[2];
+        mixer.mix(out, 1);
+        assertEquals(0.2f, out[0], DELTA);
+        assertEquals(2, source.skipped());
+        mixer.mix(out, 1);
+        assertEquals(0.3f, out[0], DELTA);
+        assertEquals(2, source.skipped());
+        mixer.close();
+        ring.free();
+    }
+
+    @Test
+    public void testRemovedSourceIsNotMixed() {
+        AudioMixer mixer = new AudioMixer(48000, 2, null);
+        AudioRing ring = ring();
+        MixerSource source = mixer.add(ring);
+        write(ring, 2, 0.5f, 0.5f, 0);
+        mixer.remove(source);
+        mixer.remove(source);
+        assertEquals(0, mixer.sources());
+
+        float[] out = { 1, 1, 1, 1 };
+        mixer.mix(out, 2);
+        assertArrayEquals(new float[4], out);
+        assertFalse(ring.isClosed(), "rings added by the caller are not closed");
+        ring.free();
+    }
+}
@@ -0,0 +1,118 @@
+package org.watermedia.videolan4j.audio;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioRingTest {
+    private static final int FRAME_SIZE = 4; // S16N STEREO
+
+    private static Memory samples(int count, int value) {
+        Memory memory = new Memory((long) count * FRAME_SIZE);
+        for (int i = 0; i < count * FRAME_SIZE; i++) {
+            memory.setByte(i, (byte) value);
+        }
+        return memory;
+    }
+
+    private static AudioRing ring(int capacity, int chunks) {
+        AudioRing ring = new AudioRing(capacity, chunks);
+        ring.setFrameSize(FRAME_SIZE);
+        return ring;
+    }
+
+    @Test
+    public void testChunksAreReadInOrder() {
+        AudioRing ring = ring(1024, 8);
+        for (int i = 0; i < 5; i++) {
+            Memory memory = samples(10 + i, i);
+            assertTrue(ring.write(Pointer.nativeValue(memory), 10 + i, i * 1000L));
+        }
+        assertEquals(5, ring.available());
+        for (int i = 0; i < 5; i++) {
+            AudioChunk chunk = ring.acquire();
+            assertNotNull(chunk);
+            assertEquals(i * 1000L, chunk.pts());
+            assertEquals(10 + i, chunk.samples());
+            assertEquals((10 + i) * FRAME_SIZE, chunk.length());
+            assertEquals(i, chunk.buffer().get(chunk.buffer().position()));
+        }
+        ring.release();
+        assertNull(ring.acquire());
+        assertEquals(0, ring.available());
+        assertEquals(5, ring.written());
+        ring.free();
+    }
+
+    @Test
+    public void testOverrunWhenChunksAreFull() {
+        AudioRing ring = ring(1024, 2);
+        Memory memory = samples(8, 1);
+        assertTrue(ring.write(Pointer.nativeValue(memory), 8, 0));
+        assertTrue(ring.write(Pointer.nativeValue(memory), 8, 1));
+        assertFalse(ring.write(Pointer.nativeValue(memory), 8, 2));
+        assertEquals(1, ring.overruns());
+
+        // THE HELD CHUNK STILL COUNTS, ITS SPACE IS ONLY GIVEN BACK ON RELEASE
+        assertEquals(0, ring.acquire().pts());
+        assertFalse(ring.write(Pointer.nativeValue(memory), 8, 2));
+        ring.release();
+        assertTrue(ring.write(Pointer.nativeValue(memory), 8, 2));
+        assertEquals(2, ring.overruns());
+        ring.free();
+    }
+
+    @Test
+    public void testOverrunWhenBytesAreFull() {
+        AudioRing ring = ring(256, 16);
+        Memory memory = samples(16, 1); // 64 BYTES
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.write(Pointer.nativeValue(memory), 16, i));
+        }
+        assertFalse(ring.write(Pointer.nativeValue(memory), 16, 4));
+        assertFalse(ring.write(Pointer.nativeValue(memory), 65, 4), "chunk bigger than the ring");
+        assertEquals(2, ring.overruns());
+
+        // DRAINING FREES THE BYTES, CHUNKS THAT DO NOT FIT AT THE END WRAP TO THE START
+        assertEquals(0, ring.acquire().pts());
+        assertEquals(1, ring.acquire().pts());
+        ring.release();
+        Memory bigger = samples(24, 7); // 96 BYTES
+        assertTrue(ring.write(Pointer.nativeValue(bigger), 24, 5));
+        assertEquals(2, ring.acquire().pts());
+        assertEquals(3, ring.acquire().pts());
+        AudioChunk chunk = ring.acquire();
+        assertEquals(5, chunk.pts());
+        assertEquals(96, chunk.length());
+        assertEquals(7, chunk.buffer().get(chunk.buffer().position()));
+        ring.free();
+    }
+
+    @Test
+    public void testFlushDropsQueuedChunks() {
+        AudioRing ring = ring(1024, 8);
+        Memory memory = samples(8, 1);
+        for (int i = 0; i < 3; i++) {
+            ring.write(Pointer.nativeValue(memory), 8, i);
+        }
+        ring.flush(null, 0);
+        assertNull(ring.acquire());
+        assertTrue(ring.write(Pointer.nativeValue(memory), 8, 10));
+        assertEquals(10, ring.acquire().pts());
+        ring.free();
+    }
+
+    @Test
+    public void testClosedRingDropsSamples() {
+        AudioRing ring = ring(1024, 8);
+        Memory memory = samples(8, 1);
+        assertTrue(ring.write(Pointer.nativeValue(memory), 8, 0));
+        ring.close();
+        assertTrue(ring.isClosed());
+        assertFalse(ring.write(Pointer.nativeValue(memory), 8, 1));
+        assertEquals(1, ring.written());
+        ring.free();
+    }
+}
@@ -0,0 +1,85 @@
+package org.watermedia.videolan4j.audio;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyncControllerTest {
+    /**
+     * Driven by a synthetic clock instead of the LibVLC one
+     */
+    private static final class Controller extends SyncController {
+        private long time;
+
+        private Controller() {
+            super(40_000);
+        }
+
+        @Override
+        protected long time() {
+            return time;
+        }
+    }
+
+    @Test
+    public void testClockFollowsTheHeardAudio() {
+        Controller sync = new Controller();
+        sync.time = 10_000;
+        assertEquals(10_000, sync.clock(), "no audio reported yet");
+
+        // HEARD 500us FROM NOW, 9500us AFTER ITS PTS
+        sync.played(1_000, 500);
+        assertEquals(9_500, sync.latency());
+        sync.time = 10_500;
+        assertEquals(1_000, sync.clock());
+        sync.time = 10_600;
+        assertEquals(1_100, sync.clock());
+
+        // AUDIO STOPPED, THE CLOCK DOES NOT RUN AWAY
+        sync.time = 10_500 + 2_000_000;
+        assertEquals(1_000 + 500_000, sync.clock());
+    }
+
+    @Test
+    public void testLatencyIsSmoothed() {
+        Controller sync = new Controller();
+        sync.time = 100_000;
+        sync.played(90_000, 0);
+        assertEquals(10_000, sync.latency());
+        sync.time = 101_600;
+        sync.played(90_000, 0);
+        assertEquals(10_000 + 1_600 / 16, sync.latency());
+    }
+
+    @Test
+    public void testDecide() {
+        Controller sync = new Controller();
+        sync.time = 1_000_000;
+        sync.played(500_000, 0);
+        long clock = sync.clock();
+        assertEquals(500_000, clock);
+
+        assertEquals(SyncDecision.SHOW, sync.decide(clock));
+        assertEquals(SyncDecision.SHOW, sync.decide(clock + 40_000));
+        assertEquals(SyncDecision.REPEAT, sync.decide(clock + 40_001));
+        assertEquals(SyncDecision.DROP, sync.decide(clock - 40_001));
+        assertEquals(SyncDecision.SHOW, sync.decide(-1), "frames without stamps are always shown");
+        assertEquals(3, sync.shown());
+        assertEquals(1, sync.repeated());
+        assertEquals(1, sync.dropped());
+    }
+
+    @Test
+    public void testReset() {
+        Controller sync = new Controller();
+        sync.time = 1_000_000;
+        sync.played(500_000, 0);
+        sync.reset();
+        assertEquals(0, sync.latency());
+        assertEquals(0, sync.delay());
+        assertEquals(1_000_000, sync.clock(), "reported chunks were kept");
+
+        sync.played(2_000, 0);
+        assertEquals(998_000, sync.latency(), "smoothed with the previous media");
+    }
+}
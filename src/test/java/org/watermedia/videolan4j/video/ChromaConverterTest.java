@@ -0,0 +1,113 @@
+package org.watermedia.videolan4j.video;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChromaConverterTest {
+    private static void fill(ByteBuffer plane, int... pattern) {
+        for (int i = 0; i < plane.capacity(); i++) {
+            plane.put(i, (byte) pattern[i % pattern.length]);
+        }
+    }
+
+    private static FrameBuffer yuv(String chroma, int width, int height, int y, int u, int v) {
+        FrameBuffer frame = FrameBuffer.alloc(FrameLayout.of(chroma, width, height));
+        switch (chroma) {
+            case "I420": fill(frame.plane(0), y); fill(frame.plane(1), u); fill(frame.plane(2), v); break;
+            case "YV12": fill(frame.plane(0), y); fill(frame.plane(1), v); fill(frame.plane(2), u); break;
+            case "NV12": fill(frame.plane(0), y); fill(frame.plane(1), u, v); break;
+            case "NV21": fill(frame.plane(0), y); fill(frame.plane(1), v, u); break;
+            case "YUY2": fill(frame.plane(0), y, u, y, v); break;
+            case "UYVY": fill(frame.plane(0), u, y, v, y); break;
+            default: throw new IllegalArgumentException(chroma);
+        }
+        return frame;
+    }
+
+    private static void assertPixels(FrameBuffer frame, int r, int g, int b) {
+        FrameLayout layout = frame.layout();
+        ByteBuffer plane = frame.plane(0);
+        int ri = layout.chroma().equals("RGBA") ? 0 : 2, bi = 2 - ri;
+        for (int row = 0; row < layout.height(); row++) {
+            for (int x = 0; x < layout.width(); x++) {
+                int o = row * layout.pitch(0) + x * 4;
+                String at = layout.chroma() + " pixel " + x + "," + row;
+                assertTrue(Math.abs((plane.get(o + ri) & 0xFF) - r) <= 1, at + " red " + (plane.get(o + ri) & 0xFF));
+                assertTrue(Math.abs((plane.get(o + 1) & 0xFF) - g) <= 1, at + " green " + (plane.get(o + 1) & 0xFF));
+                assertTrue(Math.abs((plane.get(o + bi) & 0xFF) - b) <= 1, at + " blue " + (plane.get(o + bi) & 0xFF));
+                assertEquals(255, plane.get(o + 3) & 0xFF, at + " alpha");
+            }
+        }
+    }
+
+    @Test
+    public void testCanConvert() {
+        assertTrue(ChromaConverter.canConvert("I420"));
+        assertTrue(ChromaConverter.canConvert("NV12"));
+        assertTrue(ChromaConverter.canConvert("UYVY"));
+        assertFalse(ChromaConverter.canConvert("RV32"));
+        assertFalse(ChromaConverter.canConvert("I444"));
+    }
+
+    @Test
+    public void testLimitedRange() {
+        ChromaConverter converter = new ChromaConverter(ColorSpace.BT709_LIMITED);
+        FrameBuffer dst = FrameBuffer.alloc(FrameLayout.of("RGBA", 6, 4));
+        for (String chroma: new String[] { "I420", "YV12", "NV12", "NV21", "YUY2", "UYVY" }) {
+            FrameBuffer white = yuv(chroma, 6, 4, 235, 128, 128), black = yuv(chroma, 6, 4, 16, 128, 128);
+            converter.convert(white, dst);
+            assertPixels(dst, 255, 255, 255);
+            converter.convert(black, dst);
+            assertPixels(dst, 0, 0, 0);
+            white.release();
+            black.release();
+        }
+        dst.release();
+    }
+
+    @Test
+    public void testChromaOrder() {
+        // SATURATED RED, FULL RANGE BT.601
+        ChromaConverter converter = new ChromaConverter(ColorSpace.BT601_FULL);
+        FrameBuffer rgba = FrameBuffer.alloc(FrameLayout.of("RGBA", 5, 3)), bgra = FrameBuffer.alloc(FrameLayout.of("BGRA", 5, 3));
+        for (String chroma: new String[] { "I420", "YV12", "NV12", "NV21", "YUY2", "UYVY" }) {
+            FrameBuffer red = yuv(chroma, 5, 3, 76, 85, 255);
+            converter.convert(red, rgba);
+            assertPixels(rgba, 254, 0, 0);
+            converter.convert(red, bgra);
+            assertPixels(bgra, 254, 0, 0);
+            red.release();
+        }
+        rgba.release();
+        bgra.release();
+    }
+
+    @Test
+    public void testBands() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ChromaConverter converter = new ChromaConverter(ColorSpace.BT709_FULL, pool);
+        FrameBuffer src = yuv("I420", 64, 100, 128, 128, 128), dst = FrameBuffer.alloc(FrameLayout.of("RGBA", 64, 100));
+        converter.convert(src, dst);
+        assertPixels(dst, 128, 128, 128);
+        src.release();
+        dst.release();
+        pool.shutdown();
+    }
+
+    @Test
+    public void testMismatches() {
+        ChromaConverter converter = new ChromaConverter(ColorSpace.BT709_LIMITED);
+        FrameBuffer src = yuv("I420", 8, 8, 16, 128, 128);
+        FrameBuffer smaller = FrameBuffer.alloc(FrameLayout.of("RGBA", 8, 6)), grey = FrameBuffer.alloc(FrameLayout.of("GREY", 8, 8));
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(src, smaller));
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(src, grey));
+        assertThrows(IllegalArgumentException.class, () -> converter.convert(grey, src));
+        src.release();
+        smaller.release();
+        grey.release();
+    }
+}
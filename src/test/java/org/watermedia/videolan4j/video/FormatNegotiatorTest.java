@@ -0,0 +1,75 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FormatNegotiatorTest {
+    private static PointerByReference table(int size) {
+        PointerByReference table = new PointerByReference();
+        table.setPointer(new Memory(size));
+        return table;
+    }
+
+    private static int format(FormatNegotiator negotiator, String chroma, IntByReference width, IntByReference height, PointerByReference pitches, PointerByReference lines) {
+        PointerByReference fourcc = table(4);
+        fourcc.getPointer().write(0, chroma.getBytes(StandardCharsets.US_ASCII), 0, 4);
+        return negotiator.format(null, fourcc, width, height, pitches, lines);
+    }
+
+    @Test
+    public void testRenegotiationReusesFrames() {
+        FrameExchanger exchanger = new FrameExchanger(3);
+        FormatNegotiator negotiator = new FormatNegotiator("RV32", exchanger);
+        PointerByReference pitches = table(16), lines = table(16);
+        try {
+            assertEquals(3, format(negotiator, "I420", new IntByReference(640), new IntByReference(360), pitches, lines));
+            assertEquals(2560, pitches.getPointer().getInt(0));
+            assertEquals(384, lines.getPointer().getInt(0));
+            assertEquals("RV32", negotiator.layout().chroma());
+            FrameBuffer frame = exchanger.frames[0];
+            long slab = frame.address(0);
+
+            // A SMALLER FORMAT FITS ON THE SAME SLABS
+            assertEquals(3, format(negotiator, "I420", new IntByReference(320), new IntByReference(180), pitches, lines));
+            assertSame(frame, exchanger.frames[0]);
+            assertEquals(slab, frame.address(0));
+            assertEquals(320, frame.layout().width());
+
+            // A BIGGER ONE REPLACES THEM
+            assertEquals(3, format(negotiator, "I420", new IntByReference(1280), new IntByReference(720), pitches, lines));
+            assertNotSame(frame, exchanger.frames[0]);
+            assertEquals(1280, exchanger.frames[0].layout().width());
+        } finally {
+            negotiator.cleanup(null);
+            exchanger.free();
+        }
+    }
+
+    @Test
+    public void testScalePolicy() {
+        FrameExchanger exchanger = new FrameExchanger(3);
+        FormatNegotiator negotiator = new FormatNegotiator("I420", exchanger);
+        negotiator.setScalePolicy(ScalePolicy.fit(480, 270));
+        IntByReference width = new IntByReference(1920), height = new IntByReference(1080);
+        try {
+            assertEquals(3, format(negotiator, "I420", width, height, table(16), table(16)));
+            assertEquals(480, width.getValue());
+            assertEquals(270, height.getValue());
+        } finally {
+            negotiator.cleanup(null);
+            exchanger.free();
+        }
+        assertThrows(IllegalArgumentException.class, () -> negotiator.setScalePolicy(null));
+    }
+
+    @Test
+    public void testUnsupportedChroma() {
+        assertThrows(IllegalArgumentException.class, () -> new FormatNegotiator("H264", new FrameExchanger(3)));
+    }
+}
@@ -0,0 +1,64 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameChangeDetectorTest {
+    private static final FrameLayout LAYOUT = FrameLayout.of("I420", 64, 32);
+
+    @Test
+    public void testHash() {
+        FrameBuffer frame = FrameBuffer.alloc(LAYOUT);
+        try {
+            FrameChangeDetector sampled = new FrameChangeDetector(4), full = new FrameChangeDetector(1);
+            long hash = sampled.hash(frame), fullHash = full.hash(frame);
+            assertNotEquals(0, hash);
+            assertEquals(hash, sampled.hash(frame));
+
+            // ROW 1 IS SKIPPED BY THE SAMPLED DETECTOR
+            frame.plane(0).put(LAYOUT.pitch(0) + 5, (byte) 1);
+            assertEquals(hash, sampled.hash(frame));
+            assertNotEquals(fullHash, full.hash(frame));
+
+            // ROW 4 OF A CHROMA PLANE IS HASHED
+            frame.plane(2).put(4 * LAYOUT.pitch(2) + LAYOUT.pitch(2) - 1, (byte) 1);
+            assertNotEquals(hash, sampled.hash(frame));
+        } finally {
+            frame.release();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FrameChangeDetector(0));
+    }
+
+    @Test
+    public void testUnchangedFrames() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        exchanger.setChangeDetector(new FrameChangeDetector());
+        PointerByReference planes = new PointerByReference();
+        planes.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        try {
+            assertTrue(decode(exchanger, planes, (byte) 0).changed());
+            assertFalse(decode(exchanger, planes, (byte) 0).changed(), "same content");
+            assertTrue(decode(exchanger, planes, (byte) 7).changed());
+
+            // ACQUIRING THE SAME FRAME AGAIN
+            assertFalse(exchanger.acquire().changed());
+        } finally {
+            exchanger.release();
+            exchanger.free();
+        }
+    }
+
+    private static FrameBuffer decode(FrameExchanger exchanger, PointerByReference planes, byte value) {
+        Pointer picture = exchanger.lock(null, planes);
+        Pointer luma = planes.getPointer().getPointer(0);
+        luma.setMemory(0, LAYOUT.planeSize(0), value);
+        exchanger.unlock(null, picture, null);
+        exchanger.display(null, picture);
+        return exchanger.acquire();
+    }
+}
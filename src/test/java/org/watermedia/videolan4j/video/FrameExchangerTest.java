@@ -0,0 +1,143 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameExchangerTest {
+    private static final FrameLayout LAYOUT = FrameLayout.of("RV32", 16, 16);
+
+    private static PointerByReference planes() {
+        PointerByReference planes = new PointerByReference();
+        planes.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        return planes;
+    }
+
+    private static int slot(Pointer picture) {
+        return (int) Pointer.nativeValue(picture) - 1;
+    }
+
+    @Test
+    public void testDisplayBeforeUnlock() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        PointerByReference planes = planes();
+        for (int i = 0; i < 10; i++) {
+            Pointer picture = exchanger.lock(null, planes);
+            assertTrue(slot(picture) < exchanger.slots(), "drained with free frames");
+            exchanger.display(null, picture);
+            exchanger.unlock(null, picture, null);
+        }
+        assertEquals(10, exchanger.published());
+        assertEquals(0, exchanger.dropped());
+        assertEquals(9, exchanger.overwritten());
+        assertTrue(exchanger.hasNewFrame());
+
+        FrameBuffer frame = exchanger.acquire();
+        assertNotNull(frame);
+        assertEquals(10, frame.sequence());
+        assertFalse(exchanger.hasNewFrame());
+        exchanger.release();
+        exchanger.free();
+    }
+
+    @Test
+    public void testUnlockBeforeDisplay() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        PointerByReference planes = planes();
+
+        // LIBVLC QUEUES DECODED FRAMES AHEAD OF THEIR DISPLAY, THOSE ARE NEVER HANDED OUT AGAIN
+        Pointer[] queued = new Pointer[3];
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = exchanger.lock(null, planes);
+            exchanger.unlock(null, queued[i], null);
+        }
+        assertEquals(3, Arrays.stream(queued).map(FrameExchangerTest::slot).distinct().count());
+
+        Pointer drain = exchanger.lock(null, planes);
+        assertEquals(exchanger.slots(), slot(drain), "no free frame, expected the drain");
+        exchanger.unlock(null, drain, null);
+        exchanger.display(null, drain);
+        assertEquals(1, exchanger.dropped());
+        assertEquals(0, exchanger.published());
+
+        for (Pointer picture: queued) {
+            exchanger.display(null, picture);
+        }
+        assertEquals(3, exchanger.published());
+        assertEquals(3, exchanger.acquire().sequence());
+
+        // THE LAST ONE IS HELD BY THE READER, THE OTHER TWO ARE FREE AGAIN
+        Pointer picture = exchanger.lock(null, planes);
+        assertNotEquals(slot(queued[2]), slot(picture));
+        assertTrue(slot(picture) < exchanger.slots());
+        exchanger.release();
+        exchanger.free();
+    }
+
+    @Test
+    public void testHeldFrameIsNeverLocked() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        PointerByReference planes = planes();
+        Pointer first = exchanger.lock(null, planes);
+        exchanger.display(null, first);
+        exchanger.unlock(null, first, null);
+        FrameBuffer held = exchanger.acquire();
+        assertSame(exchanger.frames[slot(first)], held);
+
+        for (int i = 0; i < 20; i++) {
+            Pointer picture = exchanger.lock(null, planes);
+            assertNotEquals(slot(first), slot(picture), "locked the frame held by the reader");
+            exchanger.display(null, picture);
+            exchanger.unlock(null, picture, null);
+        }
+        assertEquals(1, held.sequence());
+        assertEquals(21, exchanger.acquire().sequence());
+        exchanger.release();
+        exchanger.free();
+    }
+
+    @Test
+    public void testDroppedFramesGoBackOnceTheOrderIsKnown() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        PointerByReference planes = planes();
+        Pointer picture = exchanger.lock(null, planes);
+        exchanger.display(null, picture);
+        exchanger.unlock(null, picture, null);
+
+        // DISPLAY RUNS BEFORE UNLOCK, A FRAME UNLOCKED WITHOUT DISPLAY WAS DROPPED BY LIBVLC
+        for (int i = 0; i < 10; i++) {
+            picture = exchanger.lock(null, planes);
+            assertTrue(slot(picture) < exchanger.slots(), "dropped frames were not given back");
+            exchanger.unlock(null, picture, null);
+        }
+        assertEquals(10, exchanger.dropped());
+        assertEquals(1, exchanger.published());
+        exchanger.free();
+    }
+
+    @Test
+    public void testCleanupCountsFramesNeverDisplayed() {
+        FrameExchanger exchanger = new FrameExchanger(LAYOUT);
+        PointerByReference planes = planes();
+        for (int i = 0; i < 2; i++) {
+            exchanger.unlock(null, exchanger.lock(null, planes), null);
+        }
+        exchanger.cleanup();
+        assertEquals(2, exchanger.dropped());
+
+        assertTrue(exchanger.reformat(FrameLayout.of("RV32", 32, 32)));
+        Pointer picture = exchanger.lock(null, planes);
+        exchanger.display(null, picture);
+        exchanger.unlock(null, picture, null);
+        FrameBuffer frame = exchanger.acquire();
+        assertEquals(32, frame.layout().width());
+        exchanger.release();
+        exchanger.free();
+    }
+}
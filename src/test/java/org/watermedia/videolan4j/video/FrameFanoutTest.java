@@ -0,0 +1,126 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameFanoutTest {
+    private static final FrameLayout LAYOUT = FrameLayout.of("RV32", 16, 16);
+
+    private static PointerByReference planes() {
+        PointerByReference planes = new PointerByReference();
+        planes.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        return planes;
+    }
+
+    private static Pointer decode(FrameFanout fanout, PointerByReference planes) {
+        Pointer picture = fanout.lock(null, planes);
+        fanout.unlock(null, picture, null);
+        fanout.display(null, picture);
+        return picture;
+    }
+
+    @Test
+    public void testDropPolicies() {
+        FrameFanout fanout = new FrameFanout(4);
+        assertTrue(fanout.reformat(LAYOUT));
+        FrameSubscriber newest = fanout.subscribe(1, DropPolicy.DROP_OLDEST);
+        FrameSubscriber oldest = fanout.subscribe(1, DropPolicy.DROP_NEWEST);
+        PointerByReference planes = planes();
+        try {
+            for (int i = 0; i < 3; i++) decode(fanout, planes);
+            assertEquals(3, fanout.published());
+
+            FrameBuffer last = newest.poll(), first = oldest.poll();
+            assertEquals(3, last.sequence());
+            assertEquals(1, first.sequence());
+            assertEquals(2, newest.dropped());
+            assertEquals(2, oldest.dropped());
+            assertNull(newest.poll());
+
+            newest.release(last);
+            oldest.release(first);
+            assertThrows(IllegalStateException.class, () -> oldest.release(first));
+        } finally {
+            newest.close();
+            oldest.close();
+            fanout.free();
+        }
+    }
+
+    @Test
+    public void testHeldFramesDrain() {
+        FrameFanout fanout = new FrameFanout(2);
+        fanout.reformat(LAYOUT);
+        FrameSubscriber subscriber = fanout.subscribe(2, DropPolicy.DROP_NEWEST);
+        PointerByReference planes = planes();
+        try {
+            decode(fanout, planes);
+            decode(fanout, planes);
+
+            // BOTH FRAMES ARE QUEUED, LIBVLC WRITES INTO THE DRAIN
+            assertEquals(3, Pointer.nativeValue(decode(fanout, planes)));
+            assertEquals(1, fanout.dropped());
+            assertEquals(2, fanout.published());
+
+            FrameBuffer frame = subscriber.poll();
+            subscriber.release(frame);
+            assertTrue(Pointer.nativeValue(decode(fanout, planes)) <= 2);
+        } finally {
+            subscriber.close();
+            fanout.free();
+        }
+    }
+
+    @Test
+    public void testReformatRetiresHeldFrames() {
+        FrameFanout fanout = new FrameFanout(2);
+        fanout.reformat(LAYOUT);
+        FrameSubscriber subscriber = fanout.subscribe(2, DropPolicy.DROP_OLDEST);
+        PointerByReference planes = planes();
+        try {
+            decode(fanout, planes);
+            FrameBuffer held = subscriber.poll();
+            assertTrue(fanout.reformat(FrameLayout.of("RV32", 8, 8)));
+
+            // THE HELD FRAME KEEPS ITS LAYOUT UNTIL RELEASED
+            assertEquals(16, held.layout().width());
+            assertTrue(held.retired);
+            subscriber.release(held);
+            assertFalse(held.reshape(LAYOUT), "retired frame was not released");
+
+            decode(fanout, planes);
+            FrameBuffer frame = subscriber.poll();
+            assertEquals(8, frame.layout().width());
+            subscriber.release(frame);
+        } finally {
+            subscriber.close();
+            fanout.free();
+        }
+    }
+
+    @Test
+    public void testCloseReleasesQueuedFrames() {
+        FrameFanout fanout = new FrameFanout(2);
+        fanout.reformat(LAYOUT);
+        FrameSubscriber subscriber = fanout.subscribe(2, DropPolicy.DROP_OLDEST);
+        PointerByReference planes = planes();
+        try {
+            decode(fanout, planes);
+            decode(fanout, planes);
+            subscriber.close();
+
+            // NO SUBSCRIBER HOLDS ANYTHING, FRAMES ARE FREE AGAIN
+            assertTrue(Pointer.nativeValue(decode(fanout, planes)) <= 2);
+            assertEquals(0, fanout.dropped());
+        } finally {
+            fanout.free();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FrameFanout(1));
+        assertThrows(IllegalArgumentException.class, () -> fanout.subscribe(1, null));
+    }
+}
@@ -0,0 +1,64 @@
+package org.watermedia.videolan4j.video;
+
+import org.junit.jupiter.api.Test;
+import org.watermedia.videolan4j.ByteBufferFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameLayoutTest {
+    @Test
+    public void testPlanarLayout() {
+        FrameLayout layout = FrameLayout.of("I420", 640, 360, 32, 32);
+        assertEquals(3, layout.planes());
+        assertArrayEquals(new int[] { 640, 320, 320 }, new int[] { layout.pitch(0), layout.pitch(1), layout.pitch(2) });
+        assertArrayEquals(new int[] { 384, 192, 192 }, new int[] { layout.lines(0), layout.lines(1), layout.lines(2) });
+        assertArrayEquals(new int[] { 360, 180, 180 }, new int[] { layout.rows(0), layout.rows(1), layout.rows(2) });
+        assertArrayEquals(new int[] { 0, 245760, 307200 }, new int[] { layout.offset(0), layout.offset(1), layout.offset(2) });
+        assertEquals(368640, layout.size());
+    }
+
+    @Test
+    public void testOddSizesArePadded() {
+        // HALF PLANES ROUND UP, PITCHES ROUND UP TO THE PITCH ALIGNMENT
+        FrameLayout layout = FrameLayout.of("NV12", 101, 51, 32, 64);
+        assertEquals(2, layout.planes());
+        assertEquals(101, layout.rowBytes(0));
+        assertEquals(102, layout.rowBytes(1));
+        assertEquals(128, layout.pitch(0));
+        assertEquals(128, layout.pitch(1));
+        assertEquals(64, layout.lines(0));
+        assertEquals(32, layout.lines(1));
+        assertEquals(26, layout.rows(1));
+        assertTrue(ByteBufferFactory.isAligned(layout.offset(1), 64));
+
+        FrameLayout packed = FrameLayout.of("YUY2", 99, 10, 32, 32);
+        assertEquals(1, packed.planes());
+        assertEquals(200, packed.rowBytes(0));
+        assertEquals(224, packed.pitch(0));
+    }
+
+    @Test
+    public void testInvalidLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> FrameLayout.of("H264", 16, 16));
+        assertThrows(IllegalArgumentException.class, () -> FrameLayout.of("RV32", 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> FrameLayout.of("RV32", 16, 16, 24, 32));
+        assertThrows(IllegalArgumentException.class, () -> FrameLayout.of("I444", 65536, 65536));
+    }
+
+    @Test
+    public void testPlanesShareTheSlab() {
+        FrameLayout layout = FrameLayout.of("I420", 320, 240);
+        FrameBuffer frame = FrameBuffer.alloc(layout);
+        try {
+            long base = ByteBufferFactory.address(frame.buffer());
+            for (int plane = 0; plane < layout.planes(); plane++) {
+                assertEquals(base + layout.offset(plane), frame.address(plane));
+                assertEquals(layout.planeSize(plane), frame.plane(plane).capacity());
+                assertTrue(ByteBufferFactory.isAligned(frame.address(plane), layout.planeAlignment()));
+            }
+        } finally {
+            frame.release();
+            frame.release();
+        }
+    }
+}
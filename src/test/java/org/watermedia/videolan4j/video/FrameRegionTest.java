@@ -0,0 +1,103 @@
+package org.watermedia.videolan4j.video;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameRegionTest {
+    /**
+     * Fills each byte with its row and column inside the plane
+     */
+    private static FrameBuffer frame(String chroma, int width, int height) {
+        FrameBuffer frame = FrameBuffer.alloc(FrameLayout.of(chroma, width, height));
+        for (int plane = 0; plane < frame.layout().planes(); plane++) {
+            ByteBuffer buffer = frame.plane(plane);
+            int pitch = frame.layout().pitch(plane);
+            for (int i = 0; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) ((i / pitch) * 16 + i % pitch));
+            }
+        }
+        return frame;
+    }
+
+    private static void assertRow(FrameBuffer frame, int plane, int row, int... expected) {
+        ByteBuffer buffer = frame.plane(plane);
+        int start = row * frame.layout().pitch(plane);
+        assertEquals(expected.length, frame.layout().rowBytes(plane), "plane " + plane + " row size");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer.get(start + i) & 0xFF, "plane " + plane + " row " + row + " byte " + i);
+        }
+    }
+
+    private static int at(int row, int column) {
+        return row * 16 + column;
+    }
+
+    @Test
+    public void testRegionIsRoundedToEvenPixels() {
+        FrameRegion region = new FrameRegion(3, 5, 4, 3);
+        assertEquals(2, region.x());
+        assertEquals(4, region.y());
+        assertEquals(6, region.width());
+        assertEquals(4, region.height());
+        assertThrows(IllegalArgumentException.class, () -> region.set(-1, 0, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> region.set(0, 0, 0, 2));
+    }
+
+    @Test
+    public void testPackedOddWidth() {
+        // 4 PIXEL PAIRS PER ROW, THE REGION STARTS ON THE THIRD ONE
+        FrameBuffer frame = frame("YUY2", 7, 4);
+        FrameRegion region = new FrameRegion(4, 2, 2, 2);
+        FrameBuffer result = region.extract(frame);
+        assertEquals(2, result.layout().width());
+        assertEquals(2, result.layout().height());
+        assertRow(result, 0, 0, at(2, 8), at(2, 9), at(2, 10), at(2, 11));
+        assertRow(result, 0, 1, at(3, 8), at(3, 9), at(3, 10), at(3, 11));
+        region.free();
+        frame.release();
+    }
+
+    @Test
+    public void testPlanar() {
+        FrameBuffer frame = frame("I420", 7, 6);
+        FrameRegion region = new FrameRegion(2, 2, 4, 4);
+        FrameBuffer result = region.extract(frame);
+        assertRow(result, 0, 0, at(2, 2), at(2, 3), at(2, 4), at(2, 5));
+        assertRow(result, 0, 3, at(5, 2), at(5, 3), at(5, 4), at(5, 5));
+        for (int plane = 1; plane < 3; plane++) {
+            assertRow(result, plane, 0, at(1, 1), at(1, 2));
+            assertRow(result, plane, 1, at(2, 1), at(2, 2));
+        }
+        region.free();
+        frame.release();
+    }
+
+    @Test
+    public void testSemiPlanar() {
+        FrameBuffer frame = frame("NV12", 9, 6);
+        FrameRegion region = new FrameRegion(6, 4, 2, 2);
+        FrameBuffer result = region.extract(frame);
+        assertRow(result, 0, 0, at(4, 6), at(4, 7));
+        assertRow(result, 0, 1, at(5, 6), at(5, 7));
+        assertRow(result, 1, 0, at(2, 6), at(2, 7));
+        region.free();
+        frame.release();
+    }
+
+    @Test
+    public void testClampedToTheFrame() {
+        FrameBuffer frame = frame("RV32", 8, 8);
+        FrameRegion region = new FrameRegion(6, 6, 10, 10);
+        FrameBuffer result = region.extract(frame);
+        assertEquals(2, result.layout().width());
+        assertRow(result, 0, 1, at(7, 24), at(7, 25), at(7, 26), at(7, 27), at(7, 28), at(7, 29), at(7, 30), at(7, 31));
+
+        region.set(8, 0, 2, 2);
+        assertNull(region.extract(frame), "outside of the frame");
+        region.free();
+        frame.release();
+    }
+}
@@ -0,0 +1,112 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameSchedulerTest {
+    private static final long INTERVAL = 1000;
+
+    /**
+     * Stamps displayed frames with a synthetic clock instead of the LibVLC one
+     */
+    private static final class Exchanger extends FrameExchanger {
+        private final PointerByReference planes = new PointerByReference();
+        private long clock;
+
+        private Exchanger() {
+            super(FrameLayout.of("RV32", 16, 16));
+            planes.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        }
+
+        @Override
+        protected void onDisplay(FrameBuffer frame) {
+            frame.stamp(frame.sequence(), clock, -1);
+        }
+
+        private void display(long clock) {
+            this.clock = clock;
+            Pointer picture = this.lock(null, planes);
+            this.display(null, picture);
+            this.unlock(null, picture, null);
+        }
+    }
+
+    private static FrameScheduler scheduler(Exchanger exchanger) {
+        FrameScheduler scheduler = new FrameScheduler(exchanger, INTERVAL);
+        exchanger.setStamping(false);
+        return scheduler;
+    }
+
+    @Test
+    public void testFrameOnTime() {
+        Exchanger exchanger = new Exchanger();
+        FrameScheduler scheduler = scheduler(exchanger);
+        assertNull(scheduler.poll(10000));
+
+        // DISPLAYED BETWEEN THE PREVIOUS REFRESH AND THE ONE BEING PREPARED
+        exchanger.display(10200);
+        FrameBuffer frame = scheduler.poll(11500);
+        assertNotNull(frame);
+        assertEquals(1, frame.sequence());
+        assertNull(scheduler.poll(12500), "the same frame was shown twice");
+        assertEquals(1, scheduler.shown());
+        assertEquals(0, scheduler.early());
+        assertEquals(0, scheduler.late());
+        exchanger.free();
+    }
+
+    @Test
+    public void testEarlyFrameWaitsForTheNextRefresh() {
+        Exchanger exchanger = new Exchanger();
+        FrameScheduler scheduler = scheduler(exchanger);
+        exchanger.display(10200);
+        assertNull(scheduler.poll(11000));
+        assertNull(scheduler.poll(11100));
+        assertEquals(1, scheduler.early(), "counted once per frame");
+        assertNotNull(scheduler.poll(12000));
+        assertEquals(1, scheduler.shown());
+        assertEquals(0, scheduler.late());
+        exchanger.free();
+    }
+
+    @Test
+    public void testLateFrame() {
+        Exchanger exchanger = new Exchanger();
+        FrameScheduler scheduler = scheduler(exchanger);
+        exchanger.display(10000);
+        assertNotNull(scheduler.poll(12000));
+        assertEquals(0, scheduler.late(), "did not miss any refresh");
+
+        exchanger.display(20000);
+        assertNotNull(scheduler.poll(22001));
+        assertEquals(1, scheduler.late());
+        assertEquals(2, scheduler.shown());
+        assertEquals(0, scheduler.early());
+        exchanger.free();
+    }
+
+    @Test
+    public void testSkippedFrames() {
+        Exchanger exchanger = new Exchanger();
+        FrameScheduler scheduler = scheduler(exchanger);
+        exchanger.display(10000);
+        exchanger.display(10100);
+        exchanger.display(10200);
+        assertEquals(3, scheduler.poll(12000).sequence());
+        assertEquals(2, scheduler.skipped());
+
+        // WAITING ON THE SCHEDULER AND REPLACED BY A NEWER ONE
+        exchanger.display(12500);
+        assertNull(scheduler.poll(13000));
+        exchanger.display(12600);
+        assertEquals(5, scheduler.poll(14000).sequence());
+        assertEquals(3, scheduler.skipped());
+        assertEquals(2, scheduler.shown());
+        exchanger.free();
+    }
+}
@@ -0,0 +1,58 @@
+package org.watermedia.videolan4j.video;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistogramTest {
+    @Test
+    public void testSmallValuesHaveTheirOwnBucket() {
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i, Histogram.bucket(i));
+            assertEquals(i, Histogram.lowest(i));
+        }
+        assertEquals(8, Histogram.bucket(8));
+        assertEquals(15, Histogram.bucket(15));
+        assertEquals(16, Histogram.bucket(16));
+        assertEquals(16, Histogram.bucket(17));
+    }
+
+    @Test
+    public void testBucketBounds() {
+        for (int i = 0; i < Histogram.BUCKETS - 1; i++) {
+            long lowest = Histogram.lowest(i), next = Histogram.lowest(i + 1);
+            assertTrue(lowest < next, "bucket " + i + " is not growing");
+            assertEquals(i, Histogram.bucket(lowest), "lowest of " + i);
+            assertEquals(i, Histogram.bucket(next - 1), "highest of " + i);
+            assertTrue(next - 1 - lowest <= lowest / 8, "bucket " + i + " is wider than 12.5%");
+        }
+    }
+
+    @Test
+    public void testHugeValuesGoToTheLastBucket() {
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket((1L << 41) - 1));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(1L << 41));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+
+        HistogramStats stats = histogram.snapshot();
+        assertEquals(1001, stats.count());
+        assertEquals(1000000, stats.max());
+        long median = stats.percentile(50);
+        assertTrue(median >= 500000 && median <= 500000 * 9 / 8, "median " + median);
+        assertEquals(1000000, stats.percentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0, histogram.snapshot().percentile(99));
+    }
+}
@@ -0,0 +1,45 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.watermedia.videolan4j.binding.internal.libvlc_video_engine_t;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderOutputTest {
+    private static RenderOutput output() {
+        return new RenderOutput() {
+            @Override protected boolean setup() { return true; }
+            @Override protected void cleanup() {}
+            @Override protected boolean resize(int width, int height) { return true; }
+            @Override protected void swap() {}
+            @Override protected boolean makeCurrent(boolean enter) { return true; }
+            @Override protected Pointer getProcAddress(String name) { return null; }
+        };
+    }
+
+    @Test
+    public void testUnsupportedEngines() {
+        RenderOutput output = output();
+        // REJECTED BEFORE TOUCHING LIBVLC
+        assertThrows(IllegalArgumentException.class, () -> output.attach(null, libvlc_video_engine_t.libvlc_video_engine_d3d11));
+        assertThrows(IllegalArgumentException.class, () -> output.attach(null, libvlc_video_engine_t.libvlc_video_engine_disable));
+    }
+
+    @Test
+    public void testNothingReportedBeforeTheWindow() {
+        RenderOutput output = output();
+        assertFalse(output.reportSize(1920, 1080));
+        assertEquals(0, output.width());
+        assertEquals(0, output.height());
+        assertEquals(0, output.frames());
+    }
+
+    @Test
+    public void testEngineValues() {
+        // MUST MATCH libvlc_video_engine_t OF LIBVLC 4
+        assertEquals(1, libvlc_video_engine_t.libvlc_video_engine_opengl.intValue());
+        assertEquals(2, libvlc_video_engine_t.libvlc_video_engine_gles2.intValue());
+        assertSame(libvlc_video_engine_t.libvlc_video_engine_gles2, libvlc_video_engine_t.engine(2));
+    }
+}
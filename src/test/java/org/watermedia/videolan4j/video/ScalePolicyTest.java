@@ -0,0 +1,32 @@
+package org.watermedia.videolan4j.video;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScalePolicyTest {
+    @Test
+    public void testFit() {
+        ScalePolicy policy = ScalePolicy.fit(1280, 720);
+        assertArrayEquals(new int[] { 1280, 720 }, policy.scale(3840, 2160, 1, 1));
+        assertArrayEquals(new int[] { 960, 720 }, policy.scale(1440, 1080, 1, 1));
+
+        // NEVER UPSCALED, ODD SIZES ROUNDED TO EVEN
+        assertArrayEquals(new int[] { 640, 360 }, policy.scale(640, 360, 1, 1));
+        assertArrayEquals(new int[] { 322, 242 }, policy.scale(321, 241, 1, 1));
+    }
+
+    @Test
+    public void testFitSampleAspectRatio() {
+        // 720x576 WITH 16:11 PIXELS IS SHOWN AS 1047x576, THE WIDTH IS NOT UPSCALED SO THE HEIGHT SHRINKS
+        assertArrayEquals(new int[] { 720, 396 }, ScalePolicy.fit(1920, 1080).scale(720, 576, 16, 11));
+        assertArrayEquals(new int[] { 720, 432 }, ScalePolicy.fit(1920, 1080).scale(720, 576, 4, 3));
+        assertArrayEquals(new int[] { 720, 576 }, ScalePolicy.fit(1920, 1080).scale(720, 576, 0, 0));
+    }
+
+    @Test
+    public void testInvalidFit() {
+        assertThrows(IllegalArgumentException.class, () -> ScalePolicy.fit(0, 720));
+        assertArrayEquals(new int[] { 123, 45 }, ScalePolicy.SOURCE.scale(123, 45, 4, 3));
+    }
+}
@@ -0,0 +1,106 @@
+package org.watermedia.videolan4j.video;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.PointerByReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StagingRingTest {
+    private static PointerByReference planes() {
+        PointerByReference planes = new PointerByReference();
+        planes.setPointer(new Memory(Native.POINTER_SIZE * 4L));
+        return planes;
+    }
+
+    private static void decode(StagingRing ring, PointerByReference planes) {
+        Pointer picture = ring.lock(null, planes);
+        ring.display(null, picture);
+        ring.unlock(null, picture, null);
+    }
+
+    @Test
+    public void testFramesAreDeliveredInOrder() {
+        StagingRing ring = new StagingRing(3);
+        assertTrue(ring.reformat(FrameLayout.of("RV32", 16, 16)));
+        PointerByReference planes = planes();
+        for (int i = 0; i < 3; i++) {
+            decode(ring, planes);
+        }
+        assertEquals(3, ring.pending());
+        for (int i = 1; i <= 3; i++) {
+            FrameBuffer frame = ring.poll();
+            assertEquals(i, frame.sequence());
+            ring.release(frame);
+        }
+        assertNull(ring.poll());
+        assertEquals(3, ring.completed());
+        ring.free();
+    }
+
+    @Test
+    public void testFullRingStalls() {
+        StagingRing ring = new StagingRing(3);
+        assertTrue(ring.reformat(FrameLayout.of("RV32", 16, 16)));
+        PointerByReference planes = planes();
+        for (int i = 0; i < 4; i++) {
+            decode(ring, planes);
+        }
+        assertEquals(3, ring.published());
+        assertEquals(1, ring.stalls());
+        assertEquals(1, ring.dropped());
+        assertEquals(3, ring.pending());
+        assertEquals(1, ring.poll().sequence());
+        ring.free();
+    }
+
+    @Test
+    public void testFencedFrameWaitsForTheUpload() {
+        StagingRing ring = new StagingRing(3);
+        assertTrue(ring.reformat(FrameLayout.of("RV32", 16, 16)));
+        PointerByReference planes = planes();
+        for (int i = 0; i < 3; i++) {
+            decode(ring, planes);
+        }
+        AtomicBoolean signaled = new AtomicBoolean();
+        FrameBuffer first = ring.poll(), second = ring.poll();
+        ring.release(first, signaled::get);
+        ring.release(second);
+        assertEquals(2, ring.completed());
+
+        decode(ring, planes);
+        assertEquals(4, ring.published());
+        decode(ring, planes);
+        assertEquals(1, ring.stalls(), "locked a frame still being uploaded");
+
+        signaled.set(true);
+        assertEquals(3, ring.poll().sequence());
+        assertThrows(IllegalStateException.class, () -> ring.release(first));
+        decode(ring, planes);
+        assertEquals(1, ring.stalls(), "the signaled frame was not given back");
+        assertEquals(5, ring.published());
+        ring.free();
+    }
+
+    @Test
+    public void testUndisplayedFrameIsNotQueued() {
+        StagingRing ring = new StagingRing(3);
+        assertTrue(ring.reformat(FrameLayout.of("RV32", 16, 16)));
+        PointerByReference planes = planes();
+        decode(ring, planes);
+
+        // DISPLAY RUNS BEFORE UNLOCK, A FRAME UNLOCKED WITHOUT DISPLAY WAS DROPPED BY LIBVLC
+        for (int i = 0; i < 5; i++) {
+            Pointer picture = ring.lock(null, planes);
+            ring.unlock(null, picture, null);
+        }
+        assertEquals(1, ring.pending());
+        assertEquals(0, ring.stalls());
+        assertEquals(5, ring.dropped());
+        ring.free();
+    }
+}